@@ -0,0 +1,99 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.example.config.DirectCircuitBreakerFactory;
+import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
+import org.example.kafka.UserEventOutbox;
+import org.example.mapper.UserMapper;
+import org.example.repository.UserRepository;
+import org.example.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.DefaultLinkRelationProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+// Состояние на поток: ссылки HATEOAS строятся от текущего запроса, а он хранится в ThreadLocal
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserControllerBenchmark {
+
+    private UserController userController;
+    private ObjectMapper halObjectMapper;
+    private ObjectMapper plainObjectMapper;
+    private UserResponseDto userWithLinks;
+
+    @Setup
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/42");
+        request.setServerPort(8081);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        cacheManager.getCache("users").put(42,
+                new UserView(42, "John Doe", "john.doe@example.com", 30, LocalDateTime.of(2024, 1, 15, 10, 30), 0));
+
+        UserService userService = new UserService(mock(UserRepository.class), new UserMapper(),
+                mock(UserEventOutbox.class), new DirectCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults()),
+                cacheManager);
+
+        plainObjectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        halObjectMapper = plainObjectMapper.copy().registerModule(new Jackson2HalModule());
+        halObjectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new DefaultLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+
+        userController = new UserController(userService, plainObjectMapper, new UserLinks());
+        userWithLinks = userController.getUser(42).getBody();
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public ResponseEntity<UserResponseDto> getUser() {
+        return userController.getUser(42);
+    }
+
+    @Benchmark
+    public String serializeUserAsHal() throws JsonProcessingException {
+        return halObjectMapper.writeValueAsString(userWithLinks);
+    }
+
+    @Benchmark
+    public String serializeUserAsPlainJson() throws JsonProcessingException {
+        return plainObjectMapper.writeValueAsString(userWithLinks);
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.kafka;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.example.dto.UserEventDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// JSON-вариант повторяет прежнюю настройку: JsonSerializer с заголовком типа и JsonDeserializer с маппингом типов
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserEventCodecBenchmark {
+
+    private static final String TOPIC = "user-events";
+
+    private UserEventDto event;
+    private JsonSerializer<UserEventDto> jsonSerializer;
+    private JsonDeserializer<UserEventDto> jsonDeserializer;
+    private RecordHeaders jsonHeaders;
+    private byte[] jsonEvent;
+    private byte[] binaryEvent;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        event = new UserEventDto("CREATE", 1234, "john.doe@example.com", "John Doe", UUID.randomUUID(),
+                System.currentTimeMillis());
+        jsonSerializer = new JsonSerializer<>();
+        jsonDeserializer = new JsonDeserializer<>();
+        jsonDeserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "org.example.dto",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, UserEventDto.class.getName()), false);
+
+        jsonHeaders = new RecordHeaders();
+        jsonEvent = jsonSerializer.serialize(TOPIC, jsonHeaders, event);
+        binaryEvent = UserEventBinaryCodec.encode(event);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        jsonSerializer.close();
+        jsonDeserializer.close();
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return UserEventBinaryCodec.encode(event);
+    }
+
+    @Benchmark
+    public UserEventDto jsonDecode() {
+        return jsonDeserializer.deserialize(TOPIC, jsonHeaders, jsonEvent);
+    }
+
+    @Benchmark
+    public UserEventDto binaryDecode() {
+        return UserEventBinaryCodec.decode(binaryEvent);
+    }
+}
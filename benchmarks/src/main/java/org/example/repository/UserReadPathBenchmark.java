@@ -0,0 +1,130 @@
+package org.example.repository;
+
+import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
+import org.example.entity.User;
+import org.example.mapper.UserMapper;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Чтение через сущность против проекции UserView на H2 в памяти. Сессия открывается на каждую операцию,
+// как в запросе без транзакции, поэтому разница в gc.alloc.rate.norm — это гидратация сущности и её снимок.
+// Запросы проекций берутся из аннотаций UserRepository, чтобы бенчмарк мерил именно их
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserReadPathBenchmark {
+
+    private static final int USERS = 1000;
+    private static final int PAGE_SIZE = 50;
+    private static final int USER_ID = 500;
+
+    private final UserMapper userMapper = new UserMapper();
+    private SessionFactory sessionFactory;
+    private String viewByIdQuery;
+    private String viewsAfterQuery;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(User.class)
+                .setProperty(AvailableSettings.URL, "jdbc:h2:mem:read-path;DB_CLOSE_DELAY=-1")
+                .setProperty(AvailableSettings.USER, "sa")
+                .setProperty(AvailableSettings.PASS, "")
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .setProperty(AvailableSettings.JAKARTA_VALIDATION_MODE, "none")
+                .buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            for (int i = 1; i <= USERS; i++) {
+                session.persist(new User("User " + i, "user" + i + "@example.com", 20 + i % 50,
+                        LocalDateTime.of(2024, 1, 15, 10, 30)));
+            }
+        });
+
+        viewByIdQuery = UserRepository.class.getMethod("findViewById", int.class)
+                .getAnnotation(Query.class).value();
+        viewsAfterQuery = UserRepository.class.getMethod("findViewsAfter", int.class, Limit.class)
+                .getAnnotation(Query.class).value();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    // Прежний путь findUserById: findById загружает управляемую сущность, затем маппер копирует её в DTO
+    @Benchmark
+    public UserResponseDto findByIdAsEntity() {
+        try (Session session = sessionFactory.openSession()) {
+            return userMapper.toResponseDto(session.find(User.class, USER_ID));
+        }
+    }
+
+    @Benchmark
+    public UserResponseDto findByIdAsView() {
+        try (Session session = sessionFactory.openSession()) {
+            return userMapper.toResponseDto(session.createQuery(viewByIdQuery, UserView.class)
+                    .setParameter("id", USER_ID)
+                    .getSingleResult());
+        }
+    }
+
+    @Benchmark
+    public List<UserResponseDto> pageAsEntities() {
+        try (Session session = sessionFactory.openSession()) {
+            return toResponseDtos(session.createQuery("from User u where u.id > :afterId order by u.id asc", User.class)
+                    .setParameter("afterId", USER_ID)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList());
+        }
+    }
+
+    @Benchmark
+    public List<UserResponseDto> pageAsViews() {
+        try (Session session = sessionFactory.openSession()) {
+            List<UserView> users = session.createQuery(viewsAfterQuery, UserView.class)
+                    .setParameter("afterId", USER_ID)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+
+            List<UserResponseDto> content = new ArrayList<>(users.size());
+            for (UserView user : users) {
+                content.add(userMapper.toResponseDto(user));
+            }
+            return content;
+        }
+    }
+
+    private List<UserResponseDto> toResponseDtos(Collection<User> users) {
+        List<UserResponseDto> content = new ArrayList<>(users.size());
+        for (User user : users) {
+            content.add(userMapper.toResponseDto(user));
+        }
+        return content;
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.example.config.DirectCircuitBreakerFactory;
+import org.example.dto.UserRequestDto;
+import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
+import org.example.kafka.UserEventOutbox;
+import org.example.mapper.UserMapper;
+import org.example.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JCircuitBreakerFactory;
+import org.springframework.cloud.circuitbreaker.resilience4j.Resilience4JConfigurationProperties;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+// Обёртка Circuit Breaker меряется на пустой операции, чтобы в результате была только её собственная цена
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    private static final Supplier<Integer> OPERATION = () -> 42;
+    private static final Function<Throwable, Integer> FALLBACK = throwable -> -1;
+
+    private final UserRequestDto validRequest = new UserRequestDto("John Doe", "john.doe@example.com", 30);
+    private UserService userService;
+    private Resilience4JCircuitBreakerFactory factoryWithoutTimeLimiter;
+    private Resilience4JCircuitBreakerFactory factoryWithTimeLimiter;
+    private CircuitBreaker resolvedCircuitBreaker;
+    private DirectCircuitBreakerFactory directFactory;
+    private CircuitBreaker resolvedDirectCircuitBreaker;
+
+    @Setup
+    public void setUp() {
+        factoryWithoutTimeLimiter = circuitBreakerFactory(true);
+        factoryWithTimeLimiter = circuitBreakerFactory(false);
+        resolvedCircuitBreaker = factoryWithoutTimeLimiter.create("userService");
+        directFactory = new DirectCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults());
+        resolvedDirectCircuitBreaker = directFactory.create("userService");
+
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        userService = new UserService(mock(UserRepository.class), new UserMapper(), mock(UserEventOutbox.class),
+                directFactory, cacheManager);
+
+        cacheManager.getCache("users").put(42,
+                new UserView(42, "John Doe", "john.doe@example.com", 30, LocalDateTime.of(2024, 1, 15, 10, 30), 0));
+    }
+
+    @Benchmark
+    public UserRequestDto validateUserData() {
+        userService.validateUserData(validRequest);
+        return validRequest;
+    }
+
+    @Benchmark
+    public UserResponseDto findUserByIdFromCache() {
+        return userService.findUserById(42);
+    }
+
+    @Benchmark
+    public Integer directCall() {
+        return OPERATION.get();
+    }
+
+    // Так сервисы вызывали breaker раньше: create на каждый вызов, TimeLimiter отключён в application.yml
+    @Benchmark
+    public Integer circuitBreakerCreateAndRun() {
+        return factoryWithoutTimeLimiter.create("userService").run(OPERATION, FALLBACK);
+    }
+
+    @Benchmark
+    public Integer circuitBreakerCreateAndRunWithTimeLimiter() {
+        return factoryWithTimeLimiter.create("userService").run(OPERATION, FALLBACK);
+    }
+
+    @Benchmark
+    public Integer circuitBreakerResolvedOnceAndRun() {
+        return resolvedCircuitBreaker.run(OPERATION, FALLBACK);
+    }
+
+    @Benchmark
+    public Integer directCircuitBreakerCreateAndRun() {
+        return directFactory.create("userService").run(OPERATION, FALLBACK);
+    }
+
+    // Так сервисы вызывают breaker сейчас: экземпляр создан в конструкторе, вызов без TimeLimiter и реестра
+    @Benchmark
+    public Integer directCircuitBreakerResolvedOnceAndRun() {
+        return resolvedDirectCircuitBreaker.run(OPERATION, FALLBACK);
+    }
+
+    private static Resilience4JCircuitBreakerFactory circuitBreakerFactory(boolean disableTimeLimiter) {
+        Resilience4JConfigurationProperties properties = new Resilience4JConfigurationProperties();
+        ReflectionTestUtils.setField(properties, "disableTimeLimiter", disableTimeLimiter);
+        return new Resilience4JCircuitBreakerFactory(CircuitBreakerRegistry.ofDefaults(),
+                TimeLimiterRegistry.ofDefaults(), null, properties);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.notificationservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// При notification-service.circuit-breaker.direct=false используется стандартная фабрика Spring Cloud,
+// которая на каждый вызов отправляет код в отдельный поток ради TimeLimiter
+@Configuration
+public class CircuitBreakerFactoryConfig {
+
+    public static final String EMAIL_SERVICE = "emailService";
+
+    @Bean
+    @ConditionalOnProperty(name = "notification-service.circuit-breaker.direct", havingValue = "true",
+            matchIfMissing = true)
+    public CircuitBreakerFactory<?, ?> circuitBreakerFactory(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new DirectCircuitBreakerFactory(circuitBreakerRegistry);
+    }
+}
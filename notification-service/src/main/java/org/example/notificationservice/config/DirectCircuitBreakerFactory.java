@@ -0,0 +1,64 @@
+package org.example.notificationservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.cloud.client.circuitbreaker.ConfigBuilder;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Фабрика без TimeLimiter: breaker берётся из CircuitBreakerRegistry один раз при создании,
+// а run() только декорирует вызов в текущем потоке — без поиска в реестре, карты тегов и пула потоков.
+// Настройки экземпляров по-прежнему читаются из resilience4j.circuitbreaker.instances.
+// Копия фабрики из user-service: общего модуля у сервисов нет, поведение закреплено тестами там
+public class DirectCircuitBreakerFactory
+        extends CircuitBreakerFactory<CircuitBreakerConfig, ConfigBuilder<CircuitBreakerConfig>> {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private Function<String, CircuitBreakerConfig> defaultConfiguration;
+
+    public DirectCircuitBreakerFactory(CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.defaultConfiguration = id -> circuitBreakerRegistry.getDefaultConfig();
+    }
+
+    @Override
+    public CircuitBreaker create(String id) {
+        CircuitBreakerConfig config = getConfigurations().get(id);
+        io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker = config == null
+                ? circuitBreakerRegistry.circuitBreaker(id, () -> defaultConfiguration.apply(id))
+                : circuitBreakerRegistry.circuitBreaker(id, config);
+        return new DirectCircuitBreaker(circuitBreaker);
+    }
+
+    @Override
+    public void configureDefault(Function<String, CircuitBreakerConfig> defaultConfiguration) {
+        this.defaultConfiguration = defaultConfiguration;
+    }
+
+    @Override
+    protected ConfigBuilder<CircuitBreakerConfig> configBuilder(String id) {
+        return () -> defaultConfiguration.apply(id);
+    }
+
+    static final class DirectCircuitBreaker implements CircuitBreaker {
+
+        private final io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker;
+
+        DirectCircuitBreaker(io.github.resilience4j.circuitbreaker.CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+        }
+
+        // Открытый breaker бросает CallNotPermittedException, который тоже уходит в fallback
+        @Override
+        public <T> T run(Supplier<T> toRun, Function<Throwable, T> fallback) {
+            try {
+                return circuitBreaker.executeSupplier(toRun);
+            } catch (RuntimeException e) {
+                return fallback.apply(e);
+            }
+        }
+    }
+}
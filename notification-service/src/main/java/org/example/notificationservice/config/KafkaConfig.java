@@ -1,6 +1,8 @@
 package org.example.notificationservice.config;
 
+import org.example.notificationservice.dto.EmailRequestDto;
 import org.example.notificationservice.dto.UserEventDto;
+import org.example.notificationservice.kafka.UserEventDeserializer;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,10 +13,12 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.listener.CommonLoggingErrorHandler;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 @Configuration
 @EnableKafka
@@ -23,21 +27,20 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    // Не больше числа партиций user-events: лишние потоки консьюмеров простаивают
+    @Value("${notification-service.kafka.concurrency:3}")
+    private int concurrency = 3;
+
+    @Value("${notification-service.kafka.batch-listener.max-poll-records:500}")
+    private int batchMaxPollRecords = 500;
+
     @Bean
     public ConsumerFactory<String, UserEventDto> consumerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "notification-service");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
-
-        configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
-
-        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "org.example.notificationservice.dto.UserEventDto");
-
-        configProps.put(JsonDeserializer.TYPE_MAPPINGS,
-                "org.example.dto.UserEventDto:org.example.notificationservice.dto.UserEventDto," +
-                "userEventDto:org.example.notificationservice.dto.UserEventDto");
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, UserEventDeserializer.class);
 
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 
@@ -49,9 +52,52 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, UserEventDto> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
+
+        return factory;
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventDto> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventDto> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(batchMaxPollRecords));
+        factory.getContainerProperties().setKafkaConsumerProperties(consumerProperties);
 
         factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
 
         return factory;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public ConsumerFactory<String, EmailRequestDto> emailConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "notification-service-retry");
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(JsonDeserializer.VALUE_DEFAULT_TYPE, EmailRequestDto.class.getName());
+        configProps.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    // Обработчик ошибок не задаётся: для retry-топиков его настраивает @RetryableTopic
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, EmailRequestDto> emailKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, EmailRequestDto> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(emailConsumerFactory());
+
+        return factory;
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.notificationservice.config;
+
+import org.example.notificationservice.service.PooledJavaMailSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.Properties;
+
+@Configuration
+@EnableConfigurationProperties({MailProperties.class, RateLimitProperties.class})
+public class MailConfig {
+
+    @Value("${notification-service.mail.pool-size:4}")
+    private int poolSize = 4;
+
+    @Bean
+    public JavaMailSender mailSender(MailProperties mailProperties) {
+        PooledJavaMailSender mailSender = new PooledJavaMailSender(poolSize);
+        mailSender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            mailSender.setPort(mailProperties.getPort());
+        }
+        mailSender.setUsername(mailProperties.getUsername());
+        mailSender.setPassword(mailProperties.getPassword());
+        mailSender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            mailSender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(mailProperties.getProperties());
+        mailSender.setJavaMailProperties(javaMailProperties);
+
+        return mailSender;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.notificationservice.config;
+
+// Шаблоны задаются по имени: notification-service.templates.<имя>.subject и .body.
+// Событие не несёт языка получателя, поэтому шаблоны одноязычные
+public class NotificationTemplateProperties {
+
+    public static final String PREFIX = "notification-service.templates";
+
+    public static class TemplateSource {
+
+        private String subject;
+        private String body;
+
+        public String getSubject() {
+            return subject;
+        }
+
+        public void setSubject(String subject) {
+            this.subject = subject;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public void setBody(String body) {
+            this.body = body;
+        }
+    }
+}
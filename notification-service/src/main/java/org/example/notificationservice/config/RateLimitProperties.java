@@ -0,0 +1,38 @@
+package org.example.notificationservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "notification-service.rate-limit")
+public class RateLimitProperties {
+
+    private double globalPerSecond = 50;
+    private double burst = 50;
+    private Map<String, Double> domains = new HashMap<>();
+
+    public double getGlobalPerSecond() {
+        return globalPerSecond;
+    }
+
+    public void setGlobalPerSecond(double globalPerSecond) {
+        this.globalPerSecond = globalPerSecond;
+    }
+
+    public double getBurst() {
+        return burst;
+    }
+
+    public void setBurst(double burst) {
+        this.burst = burst;
+    }
+
+    public Map<String, Double> getDomains() {
+        return domains;
+    }
+
+    public void setDomains(Map<String, Double> domains) {
+        this.domains = domains;
+    }
+}
@@ -3,27 +3,36 @@ package org.example.notificationservice.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.example.notificationservice.dto.EmailRequestDto;
-import org.example.notificationservice.service.EmailService;
+import org.example.notificationservice.kafka.DeadLetterReplayer;
+import org.example.notificationservice.service.EmailDispatcher;
+import org.example.notificationservice.service.NotificationTemplateRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collections;
+
 @RestController
 @RequestMapping("/api/notifications")
 @Tag(name = "Notification API", description = "API для отправки email уведомлений")
 public class EmailController {
 
-    private final EmailService emailService;
+    private final EmailDispatcher emailDispatcher;
+    private final DeadLetterReplayer deadLetterReplayer;
+    private final NotificationTemplateRegistry templateRegistry;
 
     @Autowired
-    public EmailController(EmailService emailService) {
-        this.emailService = emailService;
+    public EmailController(EmailDispatcher emailDispatcher, DeadLetterReplayer deadLetterReplayer,
+                           NotificationTemplateRegistry templateRegistry) {
+        this.emailDispatcher = emailDispatcher;
+        this.deadLetterReplayer = deadLetterReplayer;
+        this.templateRegistry = templateRegistry;
     }
 
     @Operation(summary = "Отправить email",
     description = "Позволяет отправить Email")
     @PostMapping("/email")
     public void sendEmail(@RequestBody EmailRequestDto emailRequest) {
-        emailService.sendEmail(emailRequest.getTo(), emailRequest.getSubject(), emailRequest.getBody());
+        emailDispatcher.dispatch(emailRequest.getTo(), emailRequest.getSubject(), emailRequest.getBody());
     }
 
     @Operation(summary = "Отправить уведомление о создании пользователя",
@@ -32,9 +41,9 @@ public class EmailController {
     public void sendUserCreatedEmail(
             @RequestParam String email,
             @RequestParam String userName) {
-        String subject = "Добро пожаловать!";
-        String body = "Здравствуйте, " + userName + "! Ваш аккаунт на сайте был успешно создан.";
-        emailService.sendEmail(email, subject, body);
+        EmailRequestDto welcomeEmail = templateRegistry.render("user-created-site", email,
+                Collections.singletonMap("userName", userName));
+        emailDispatcher.dispatch(welcomeEmail.getTo(), welcomeEmail.getSubject(), welcomeEmail.getBody());
     }
 
     @Operation(summary = "Отправить уведомление об удалении пользователя",
@@ -43,9 +52,16 @@ public class EmailController {
     public void sendUserDeletedEmail(
             @RequestParam String email,
             @RequestParam String userName) {
-        String subject = "Аккаунт удален";
-        String body = "Здравствуйте, " + userName + "! Ваш аккаунт был удалён.";
-        emailService.sendEmail(email, subject, body);
+        EmailRequestDto goodbyeEmail = templateRegistry.render("user-deleted", email,
+                Collections.singletonMap("userName", userName));
+        emailDispatcher.dispatch(goodbyeEmail.getTo(), goodbyeEmail.getSubject(), goodbyeEmail.getBody());
+    }
+
+    @Operation(summary = "Переотправить недоставленные письма",
+    description = "Возвращает письма из dead-letter топика в очередь повторной отправки")
+    @PostMapping("/dead-letters/replay")
+    public int replayDeadLetters(@RequestParam(defaultValue = "100") int limit) {
+        return deadLetterReplayer.replay(limit);
     }
 
     @Operation(summary = "Проверить работу сервиса",
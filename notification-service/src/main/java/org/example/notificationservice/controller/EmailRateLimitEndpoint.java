@@ -0,0 +1,24 @@
+package org.example.notificationservice.controller;
+
+import org.example.notificationservice.service.EmailRateLimiter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@Endpoint(id = "emailratelimits")
+public class EmailRateLimitEndpoint {
+
+    private final EmailRateLimiter emailRateLimiter;
+
+    public EmailRateLimitEndpoint(EmailRateLimiter emailRateLimiter) {
+        this.emailRateLimiter = emailRateLimiter;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rateLimits() {
+        return emailRateLimiter.snapshot();
+    }
+}
@@ -2,6 +2,8 @@ package org.example.notificationservice.dto;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.UUID;
+
 public class UserEventDto {
 
     @Schema(description = "Тип операции с пользователем")
@@ -12,6 +14,13 @@ public class UserEventDto {
 
     @Schema(description = "Имя пользователя")
     private String userName;
+
+    @Schema(description = "Идентификатор события, по нему отбрасываются повторные доставки")
+    private UUID eventId;
+
+    @Schema(description = "Время события, мс с начала эпохи")
+    private Long timestamp;
+
     public UserEventDto() {}
 
     public UserEventDto(String operation, String email, String userName) {
@@ -20,6 +29,12 @@ public class UserEventDto {
         this.userName = userName;
     }
 
+    public UserEventDto(String operation, String email, String userName, UUID eventId, Long timestamp) {
+        this(operation, email, userName);
+        this.eventId = eventId;
+        this.timestamp = timestamp;
+    }
+
     public String getOperation() { return operation; }
     public void setOperation(String operation) { this.operation = operation; }
 
@@ -28,4 +43,10 @@ public class UserEventDto {
 
     public String getUserName() { return userName; }
     public void setUserName(String userName) { this.userName = userName; }
+
+    public UUID getEventId() { return eventId; }
+    public void setEventId(UUID eventId) { this.eventId = eventId; }
+
+    public Long getTimestamp() { return timestamp; }
+    public void setTimestamp(Long timestamp) { this.timestamp = timestamp; }
 }
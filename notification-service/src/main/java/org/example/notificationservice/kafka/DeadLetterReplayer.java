@@ -0,0 +1,100 @@
+package org.example.notificationservice.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+public class DeadLetterReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayer.class);
+    private static final String REPLAY_GROUP = "notification-service-dlt-replay";
+    private final ConsumerFactory<String, EmailRequestDto> emailConsumerFactory;
+    private final KafkaTemplate<String, EmailRequestDto> kafkaTemplate;
+
+    public DeadLetterReplayer(ConsumerFactory<String, EmailRequestDto> emailConsumerFactory,
+                              KafkaTemplate<String, EmailRequestDto> kafkaTemplate) {
+        this.emailConsumerFactory = emailConsumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    // Прочитанная позиция DLT хранится в офсетах группы replay, поэтому повторный вызов
+    // переотправляет только письма, попавшие в DLT после предыдущего. Автокоммит выключен:
+    // иначе закоммитились бы и записи, прочитанные сверх limit, и следующий replay их пропустил бы
+    public synchronized int replay(int limit) {
+        Properties properties = new Properties();
+        properties.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, "false");
+
+        try (Consumer<String, EmailRequestDto> consumer =
+                     emailConsumerFactory.createConsumer(REPLAY_GROUP, null, null, properties)) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(FailedEmailPublisher.DLT_TOPIC);
+            if (partitionInfos == null) {
+                return 0;
+            }
+            for (PartitionInfo partitionInfo : partitionInfos) {
+                partitions.add(new TopicPartition(partitionInfo.topic(), partitionInfo.partition()));
+            }
+
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                if (offset == null) {
+                    consumer.seekToBeginning(List.of(partition));
+                } else {
+                    consumer.seek(partition, offset.offset());
+                }
+            }
+
+            Map<TopicPartition, OffsetAndMetadata> replayedOffsets = new HashMap<>();
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            while (sends.size() < limit && !reachedEnd(consumer, partitions, endOffsets)) {
+                for (ConsumerRecord<String, EmailRequestDto> record : consumer.poll(Duration.ofMillis(500))) {
+                    if (sends.size() >= limit) {
+                        break;
+                    }
+                    sends.add(kafkaTemplate.send(FailedEmailPublisher.TOPIC, record.key(), record.value()));
+                    replayedOffsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            kafkaTemplate.flush();
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+            consumer.commitSync(replayedOffsets);
+
+            logger.info("Replayed {} emails from {}", sends.size(), FailedEmailPublisher.DLT_TOPIC);
+            return sends.size();
+        }
+    }
+
+    private boolean reachedEnd(Consumer<String, EmailRequestDto> consumer, List<TopicPartition> partitions,
+                               Map<TopicPartition, Long> endOffsets) {
+        for (TopicPartition partition : partitions) {
+            if (consumer.position(partition) < endOffsets.get(partition)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.notificationservice.kafka;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.example.notificationservice.service.EmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.DltHandler;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.stereotype.Component;
+
+// Каждая неудачная попытка переносит письмо в следующий retry-топик с увеличенной задержкой,
+// поэтому недоступный SMTP не блокирует разбор остальных сообщений. После последней попытки
+// письмо остаётся в failed-emails-dlt, откуда его можно переотправить через DeadLetterReplayer
+@Component
+public class EmailRetryConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailRetryConsumer.class);
+    private final EmailService emailService;
+
+    public EmailRetryConsumer(EmailService emailService) {
+        this.emailService = emailService;
+    }
+
+    @RetryableTopic(
+            attempts = "${notification-service.retry.attempts:5}",
+            backoff = @Backoff(
+                    delayExpression = "${notification-service.retry.initial-delay-ms:30000}",
+                    multiplierExpression = "${notification-service.retry.multiplier:4}",
+                    maxDelayExpression = "${notification-service.retry.max-delay-ms:1800000}"),
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            kafkaTemplate = "kafkaTemplate")
+    @KafkaListener(topics = FailedEmailPublisher.TOPIC, groupId = "notification-service-retry",
+            containerFactory = "emailKafkaListenerContainerFactory")
+    public void retry(EmailRequestDto email) {
+        emailService.deliver(email);
+        logger.info("Email to {} delivered after retry", email.getTo());
+    }
+
+    @DltHandler
+    public void deadLetter(EmailRequestDto email) {
+        logger.error("Email to {} moved to {} after all retries", email.getTo(), FailedEmailPublisher.DLT_TOPIC);
+    }
+}
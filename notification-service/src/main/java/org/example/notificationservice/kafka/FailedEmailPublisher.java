@@ -0,0 +1,29 @@
+package org.example.notificationservice.kafka;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FailedEmailPublisher {
+
+    public static final String TOPIC = "failed-emails";
+    public static final String DLT_TOPIC = TOPIC + "-dlt";
+
+    private static final Logger logger = LoggerFactory.getLogger(FailedEmailPublisher.class);
+    private final KafkaTemplate<String, EmailRequestDto> kafkaTemplate;
+
+    public FailedEmailPublisher(KafkaTemplate<String, EmailRequestDto> kafkaTemplate) {
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    public void park(EmailRequestDto email) {
+        kafkaTemplate.send(TOPIC, email.getTo(), email).whenComplete((result, ex) -> {
+            if (ex != null) {
+                logger.error("Failed to park email to {} for retry", email.getTo(), ex);
+            }
+        });
+    }
+}
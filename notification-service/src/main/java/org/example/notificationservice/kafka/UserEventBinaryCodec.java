@@ -0,0 +1,152 @@
+package org.example.notificationservice.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.example.notificationservice.dto.UserEventDto;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+// Компактный формат user-events вместо JSON с заголовками типов:
+// версия (1 байт) | флаги (1 байт) | [eventId 16 байт] | [timestamp 8 байт] | [userId varint]
+// | operation | email | userName, где строка — varint (длина + 1, 0 означает null) и байты UTF-8.
+// Новые поля можно добавлять только в конец без смены версии: читатели игнорируют лишние байты.
+// Несовместимое изменение раскладки требует новой версии, которую старые читатели отклонят.
+// Формат задаёт user-service, здесь его копия; совместимость закреплена тестами на эталонных байтах.
+// userId уведомлениям не нужен, поэтому при чтении пропускается, а при записи не пишется
+public final class UserEventBinaryCodec {
+
+    public static final byte VERSION = 1;
+
+    private static final int HAS_USER_ID = 1;
+    private static final int HAS_EVENT_ID = 1 << 1;
+    private static final int HAS_TIMESTAMP = 1 << 2;
+
+    private UserEventBinaryCodec() {
+    }
+
+    // JSON-объект всегда начинается с '{', а бинарное событие — с байта версии
+    public static boolean isJson(byte[] data) {
+        return data.length > 0 && data[0] == '{';
+    }
+
+    public static byte[] encode(UserEventDto event) {
+        byte[] operation = utf8(event.getOperation());
+        byte[] email = utf8(event.getEmail());
+        byte[] userName = utf8(event.getUserName());
+
+        int flags = 0;
+        int size = 2 + stringSize(operation) + stringSize(email) + stringSize(userName);
+        if (event.getEventId() != null) {
+            flags |= HAS_EVENT_ID;
+            size += 16;
+        }
+        if (event.getTimestamp() != null) {
+            flags |= HAS_TIMESTAMP;
+            size += 8;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(VERSION);
+        buffer.put((byte) flags);
+        if (event.getEventId() != null) {
+            buffer.putLong(event.getEventId().getMostSignificantBits());
+            buffer.putLong(event.getEventId().getLeastSignificantBits());
+        }
+        if (event.getTimestamp() != null) {
+            buffer.putLong(event.getTimestamp());
+        }
+        putString(buffer, operation);
+        putString(buffer, email);
+        putString(buffer, userName);
+        return buffer.array();
+    }
+
+    public static UserEventDto decode(byte[] data) {
+        if (data.length == 0 || data[0] != VERSION) {
+            throw new SerializationException("Неподдерживаемая версия схемы user-events: "
+                    + (data.length == 0 ? "пустое сообщение" : data[0]));
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(data, 1, data.length - 1);
+            int flags = buffer.get();
+
+            UserEventDto event = new UserEventDto();
+            if ((flags & HAS_EVENT_ID) != 0) {
+                event.setEventId(new UUID(buffer.getLong(), buffer.getLong()));
+            }
+            if ((flags & HAS_TIMESTAMP) != 0) {
+                event.setTimestamp(buffer.getLong());
+            }
+            if ((flags & HAS_USER_ID) != 0) {
+                getVarInt(buffer);
+            }
+            event.setOperation(getString(buffer));
+            event.setEmail(getString(buffer));
+            event.setUserName(getString(buffer));
+            return event;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new SerializationException("Повреждённое событие user-events", e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int stringSize(byte[] value) {
+        return value == null ? 1 : varIntSize(value.length + 1) + value.length;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            putVarInt(buffer, 0);
+            return;
+        }
+        putVarInt(buffer, value.length + 1);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int encodedLength = getVarInt(buffer);
+        if (encodedLength == 0) {
+            return null;
+        }
+        int length = encodedLength - 1;
+        String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Повреждённое событие user-events: слишком длинное число");
+    }
+}
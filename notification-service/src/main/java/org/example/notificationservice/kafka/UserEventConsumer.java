@@ -1,63 +1,93 @@
 package org.example.notificationservice.kafka;
 
+import org.example.notificationservice.dto.EmailRequestDto;
 import org.example.notificationservice.dto.UserEventDto;
-import org.example.notificationservice.service.EmailService;
+import org.example.notificationservice.service.EmailDispatcher;
+import org.example.notificationservice.service.EventDeduplicator;
+import org.example.notificationservice.service.NotificationTemplateRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
-import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Слушатель ждёт, пока письма будут отправлены или отложены в retry-топик, и только потом возвращает
+// управление контейнеру, который коммитит офсеты. Поэтому письмо из user-events не теряется при падении
+// сервиса между чтением и отправкой: после перезапуска событие будет прочитано ещё раз (at-least-once)
 @Component
 public class UserEventConsumer {
 
     private static final Logger logger = LoggerFactory.getLogger(UserEventConsumer.class);
-    private final EmailService emailService;
-    private final CircuitBreakerFactory circuitBreakerFactory;
+    private final EmailDispatcher emailDispatcher;
+    private final NotificationTemplateRegistry templateRegistry;
+    private final EventDeduplicator eventDeduplicator;
 
-    public UserEventConsumer(EmailService emailService, CircuitBreakerFactory circuitBreakerFactory) {
-        this.emailService = emailService;
-        this.circuitBreakerFactory = circuitBreakerFactory;
+    public UserEventConsumer(EmailDispatcher emailDispatcher, NotificationTemplateRegistry templateRegistry,
+                             EventDeduplicator eventDeduplicator) {
+        this.emailDispatcher = emailDispatcher;
+        this.templateRegistry = templateRegistry;
+        this.eventDeduplicator = eventDeduplicator;
     }
 
-    @KafkaListener(topics = "user-events", groupId = "notification-service")
+    @KafkaListener(topics = "user-events", groupId = "notification-service",
+            autoStartup = "#{!${notification-service.kafka.batch-listener.enabled:false}}")
     public void consumeUserEvent(UserEventDto userEvent) {
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("kafkaConsumer");
-
-        circuitBreaker.run(() -> {
-            logger.info("Received user event: {} for user: {}", userEvent.getOperation(), userEvent.getEmail());
-
-            try {
-                if ("CREATE".equals(userEvent.getOperation())) {
-                    sendWelcomeEmail(userEvent.getEmail(), userEvent.getUserName());
-                } else if ("DELETE".equals(userEvent.getOperation())) {
-                    sendGoodbyeEmail(userEvent.getEmail(), userEvent.getUserName());
-                }
-                logger.info("Successfully processed user event: {}", userEvent.getOperation());
-            } catch (Exception e) {
-                logger.error("Error processing user event: {}", userEvent.getOperation(), e);
-                throw e;
+        if (!eventDeduplicator.markIfNew(userEvent.getEventId())) {
+            logger.info("Skipping duplicate user event {}", userEvent.getEventId());
+            return;
+        }
+
+        logger.info("Received user event: {} for user: {}", userEvent.getOperation(), userEvent.getEmail());
+        for (EmailRequestDto email : emailsFor(List.of(userEvent))) {
+            emailDispatcher.dispatch(email.getTo(), email.getSubject(), email.getBody()).join();
+        }
+        logger.info("Successfully processed user event: {}", userEvent.getOperation());
+    }
+
+    // Пачка режется диспетчером на куски, офсеты коммитятся один раз на пачку после отправки всех писем
+    @KafkaListener(topics = "user-events", groupId = "notification-service",
+            containerFactory = "batchKafkaListenerContainerFactory",
+            autoStartup = "${notification-service.kafka.batch-listener.enabled:false}")
+    public void consumeUserEvents(List<UserEventDto> receivedEvents) {
+        List<UserEventDto> userEvents = new ArrayList<>(receivedEvents.size());
+        for (UserEventDto userEvent : receivedEvents) {
+            if (eventDeduplicator.markIfNew(userEvent.getEventId())) {
+                userEvents.add(userEvent);
             }
+        }
+        if (userEvents.size() < receivedEvents.size()) {
+            logger.info("Skipping {} duplicate user events in batch", receivedEvents.size() - userEvents.size());
+        }
+        if (userEvents.isEmpty()) {
+            return;
+        }
 
-            return null;
-        }, throwable -> {
-            logger.error("Circuit Breaker opened for Kafka consumer. Event {} for user {} was not processed.",
-                    userEvent.getOperation(), userEvent.getEmail());
+        List<EmailRequestDto> emails = emailsFor(userEvents);
+        emailDispatcher.dispatchAll(emails).join();
+        logger.info("Processed batch of {} user events, {} emails sent", userEvents.size(), emails.size());
+    }
 
-            return null;
-        });
+    // Письма собираются в порядке прихода событий: CREATE и DELETE одного пользователя не должны меняться местами
+    private List<EmailRequestDto> emailsFor(List<UserEventDto> userEvents) {
+        List<EmailRequestDto> emails = new ArrayList<>(userEvents.size());
+        for (UserEventDto userEvent : userEvents) {
+            if ("CREATE".equals(userEvent.getOperation())) {
+                emails.add(welcomeEmail(userEvent.getEmail(), userEvent.getUserName()));
+            } else if ("DELETE".equals(userEvent.getOperation())) {
+                emails.add(goodbyeEmail(userEvent.getEmail(), userEvent.getUserName()));
+            }
+        }
+        return emails;
     }
 
-    private void sendWelcomeEmail(String email, String userName) {
-        String subject = "Добро пожаловать!";
-        String body = "Здравствуйте, " + userName + "! Ваш аккаунт был успешно создан.";
-        emailService.sendEmail(email, subject, body);
+    private EmailRequestDto welcomeEmail(String email, String userName) {
+        return templateRegistry.render("user-created", email, Collections.singletonMap("userName", userName));
     }
 
-    private void sendGoodbyeEmail(String email, String userName) {
-        String subject = "Аккаунт удален";
-        String body = "Здравствуйте, " + userName + "! Ваш аккаунт был удалён.";
-        emailService.sendEmail(email, subject, body);
+    private EmailRequestDto goodbyeEmail(String email, String userName) {
+        return templateRegistry.render("user-deleted", email, Collections.singletonMap("userName", userName));
     }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package org.example.notificationservice.kafka;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.notificationservice.dto.UserEventDto;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+// Читает и JSON, и бинарный формат user-events, поэтому user-service можно переключать без остановки консьюмеров.
+// Заголовки типов не используются: тело всегда читается в UserEventDto этого сервиса
+public class UserEventDeserializer implements Deserializer<UserEventDto> {
+
+    private final JsonDeserializer<UserEventDto> jsonDeserializer = new JsonDeserializer<>(UserEventDto.class, false);
+
+    @Override
+    public UserEventDto deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return UserEventBinaryCodec.isJson(data)
+                ? jsonDeserializer.deserialize(topic, data)
+                : UserEventBinaryCodec.decode(data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
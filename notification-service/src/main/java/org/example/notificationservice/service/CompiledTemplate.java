@@ -0,0 +1,49 @@
+package org.example.notificationservice.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Шаблон разбирается один раз: текст хранится как чередование готовых литералов и имён плейсхолдеров {name}
+public class CompiledTemplate {
+
+    private final String[] literals;
+    private final String[] placeholders;
+
+    private CompiledTemplate(String[] literals, String[] placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    public static CompiledTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf('{', position);
+            int close = open >= 0 ? source.indexOf('}', open) : -1;
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + 1, close));
+            position = close + 1;
+        }
+        return new CompiledTemplate(literals.toArray(new String[0]), placeholders.toArray(new String[0]));
+    }
+
+    // Плейсхолдер без значения остаётся в тексте как есть, а не превращается в строку "null"
+    public void renderTo(StringBuilder buffer, Map<String, ?> variables) {
+        for (int i = 0; i < placeholders.length; i++) {
+            buffer.append(literals[i]);
+            Object value = variables.get(placeholders[i]);
+            if (value != null) {
+                buffer.append(value);
+            } else {
+                buffer.append('{').append(placeholders[i]).append('}');
+            }
+        }
+        buffer.append(literals[placeholders.length]);
+    }
+}
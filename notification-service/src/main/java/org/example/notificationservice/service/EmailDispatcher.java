@@ -0,0 +1,126 @@
+package org.example.notificationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+    private final EmailService emailService;
+    private final ThreadPoolExecutor executor;
+    private final int batchSize;
+    private final AtomicInteger queuedEmails = new AtomicInteger();
+    private final Timer waitTimer;
+    private final Timer sendTimer;
+    private final Counter callerRunsCounter;
+
+    // Очередь ограничена числом писем, а не задач: пачка режется на куски по batchSize,
+    // и в очередь помещается не больше queueCapacity / batchSize кусков
+    public EmailDispatcher(EmailService emailService, MeterRegistry meterRegistry,
+                           @Value("${notification-service.dispatch.workers:4}") int workers,
+                           @Value("${notification-service.dispatch.queue-capacity:10000}") int queueCapacity,
+                           @Value("${notification-service.dispatch.batch-size:50}") int batchSize) {
+        this.emailService = emailService;
+        this.batchSize = batchSize;
+        this.waitTimer = meterRegistry.timer("email.dispatch.wait");
+        this.sendTimer = meterRegistry.timer("email.dispatch.send");
+        this.callerRunsCounter = meterRegistry.counter("email.dispatch.caller-runs");
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity / batchSize)), workerThreadFactory(),
+                callerRunsWhenFull());
+
+        meterRegistry.gauge("email.dispatch.queue.size", queuedEmails);
+    }
+
+    public CompletableFuture<Void> dispatch(String to, String subject, String body) {
+        return submit(1, () -> send(() -> emailService.sendEmail(to, subject, body), to));
+    }
+
+    // Future завершается, когда каждое письмо отправлено или отложено в retry-топик
+    public CompletableFuture<Void> dispatchAll(List<EmailRequestDto> emails) {
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < emails.size(); from += batchSize) {
+            List<EmailRequestDto> chunk = emails.subList(from, Math.min(from + batchSize, emails.size()));
+            chunks.add(submit(chunk.size(),
+                    () -> send(() -> emailService.sendEmails(chunk), chunk.size() + " recipients")));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]));
+    }
+
+    public int getQueueSize() {
+        return queuedEmails.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Email dispatch queue was not drained, {} tasks dropped", executor.shutdownNow().size());
+        }
+    }
+
+    private CompletableFuture<Void> submit(int emails, Runnable sending) {
+        long enqueuedAt = System.nanoTime();
+        queuedEmails.addAndGet(emails);
+        try {
+            return CompletableFuture.runAsync(() -> {
+                queuedEmails.addAndGet(-emails);
+                waitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                sendTimer.record(sending);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            queuedEmails.addAndGet(-emails);
+            throw e;
+        }
+    }
+
+    private void send(Runnable sending, String recipient) {
+        try {
+            sending.run();
+        } catch (RuntimeException e) {
+            logger.error("Error sending email to {}", recipient, e);
+        }
+    }
+
+    // Очередь заполнена: кусок пачки отправляет вызывающий поток. Слушатель Kafka и HTTP-запросы
+    // замедляются вместе с SMTP, а письма не теряются и память не растёт без ограничений.
+    // После остановки пула письмо отклоняется с исключением, чтобы офсет Kafka не был закоммичен
+    private RejectedExecutionHandler callerRunsWhenFull() {
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                logger.warn("Email dispatch queue is shut down, message was not sent");
+                throw new RejectedExecutionException("Очередь отправки email остановлена");
+            }
+            callerRunsCounter.increment();
+            task.run();
+        };
+    }
+
+    private ThreadFactory workerThreadFactory() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "email-dispatch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.notificationservice.service;
+
+import org.example.notificationservice.config.RateLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class EmailRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailRateLimiter.class);
+    private static final String GLOBAL = "global";
+    private final TokenBucket globalBucket;
+    private final Map<String, TokenBucket> domainBuckets = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> delayedMessages = new ConcurrentHashMap<>();
+
+    public EmailRateLimiter(RateLimitProperties properties) {
+        this.globalBucket = new TokenBucket(properties.getGlobalPerSecond(), properties.getBurst());
+        properties.getDomains().forEach((domain, perSecond) ->
+                domainBuckets.put(domain.toLowerCase(Locale.ROOT), new TokenBucket(perSecond, Math.max(1, perSecond))));
+    }
+
+    // Ждём дольшую из двух задержек: общий лимит сервиса и лимит почтового провайдера получателя
+    public void acquire(String recipient) {
+        String domain = domainOf(recipient);
+        long waitNanos = globalBucket.reserve();
+        String limitedBy = GLOBAL;
+
+        TokenBucket domainBucket = domain != null ? domainBuckets.get(domain) : null;
+        if (domainBucket != null) {
+            long domainWaitNanos = domainBucket.reserve();
+            if (domainWaitNanos > waitNanos) {
+                waitNanos = domainWaitNanos;
+                limitedBy = domain;
+            }
+        }
+
+        if (waitNanos > 0) {
+            delayedMessages.computeIfAbsent(limitedBy, key -> new AtomicLong()).incrementAndGet();
+            logger.debug("Email to {} delayed by {} ms ({} limit)", recipient,
+                    TimeUnit.NANOSECONDS.toMillis(waitNanos), limitedBy);
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Ожидание лимита отправки email прервано", e);
+            }
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> buckets = new LinkedHashMap<>();
+        buckets.put(GLOBAL, describe(GLOBAL, globalBucket));
+        domainBuckets.forEach((domain, bucket) -> buckets.put(domain, describe(domain, bucket)));
+        return buckets;
+    }
+
+    private Map<String, Object> describe(String name, TokenBucket bucket) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("tokensPerSecond", bucket.getTokensPerSecond());
+        description.put("availableTokens", bucket.getAvailableTokens());
+        description.put("delayedMessages", delayedMessages.getOrDefault(name, new AtomicLong()).get());
+        return description;
+    }
+
+    private String domainOf(String recipient) {
+        if (recipient == null) {
+            return null;
+        }
+        int at = recipient.lastIndexOf('@');
+        return at >= 0 ? recipient.substring(at + 1).trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -1,25 +1,39 @@
 package org.example.notificationservice.service;
 
+import org.example.notificationservice.config.CircuitBreakerFactoryConfig;
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.example.notificationservice.kafka.FailedEmailPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
     private final JavaMailSender mailSender;
-    private final CircuitBreakerFactory circuitBreakerFactory;
+    private final CircuitBreaker circuitBreaker;
+    private final FailedEmailPublisher failedEmailPublisher;
+    private final EmailRateLimiter emailRateLimiter;
 
-    public EmailService(JavaMailSender mailSender, CircuitBreakerFactory circuitBreakerFactory) {
+    public EmailService(JavaMailSender mailSender, CircuitBreakerFactory circuitBreakerFactory,
+                        FailedEmailPublisher failedEmailPublisher, EmailRateLimiter emailRateLimiter) {
         this.mailSender = mailSender;
-        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.circuitBreaker = circuitBreakerFactory.create(CircuitBreakerFactoryConfig.EMAIL_SERVICE);
+        this.failedEmailPublisher = failedEmailPublisher;
+        this.emailRateLimiter = emailRateLimiter;
     }
 
     public void sendEmail(String to, String subject, String body) {
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("emailService");
-
         circuitBreaker.run(() -> {
             try {
                 SimpleMailMessage message = new SimpleMailMessage();
@@ -28,19 +42,95 @@ public class EmailService {
                 message.setText(body);
                 message.setFrom("sorohov344@gmail.com");
 
+                emailRateLimiter.acquire(to);
                 mailSender.send(message);
-                System.out.println("Email отправлен на: " + to);
+                logger.info("Email отправлен на: {}", to);
 
                 return null;
 
             } catch (Exception e) {
-                System.err.println("Ошибка отправки email: " + e.getMessage());
+                logger.error("Ошибка отправки email на {}: {}", to, e.getMessage());
                 throw new RuntimeException("Ошибка отправки email", e);
             }
         }, throwable -> {
-            System.err.println("Email service unavailable. Message to " + to + " was not sent.");
+            logger.warn("Email service unavailable. Message to {} was parked for retry.", to);
+            failedEmailPublisher.park(new EmailRequestDto(to, subject, body));
+
+            return null;
+        });
+    }
+
+    // Пачка идёт через один вызов Circuit Breaker, а SMTP-соединение переиспользует пул отправителя.
+    // Лимит берётся прямо перед отправкой каждого письма, иначе токены уходят заранее и пачка улетает разом.
+    // Ошибка одного письма не останавливает пачку, а недоступный сервер останавливает: остаток не отправляется.
+    // Доставленные письма отмечаются по позиции, fallback паркует в retry все остальные
+    public void sendEmails(List<EmailRequestDto> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+
+        boolean[] delivered = new boolean[emails.size()];
+        circuitBreaker.run(() -> {
+            int failed = 0;
+            for (int i = 0; i < emails.size(); i++) {
+                EmailRequestDto email = emails.get(i);
+                SimpleMailMessage message = new SimpleMailMessage();
+                message.setTo(email.getTo());
+                message.setSubject(email.getSubject());
+                message.setText(email.getBody());
+                message.setFrom("sorohov344@gmail.com");
+
+                emailRateLimiter.acquire(email.getTo());
+                try {
+                    mailSender.send(message);
+                    delivered[i] = true;
+                } catch (MailException e) {
+                    if (isConnectionFailure(e)) {
+                        logger.error("Почтовый сервер недоступен, отправка пачки прервана на письме {} из {}: {}",
+                                i + 1, emails.size(), e.getMessage());
+                        throw e;
+                    }
+                    logger.error("Ошибка отправки email на {}: {}", email.getTo(), e.getMessage());
+                    failed++;
+                }
+            }
+
+            if (failed > 0) {
+                throw new MailSendException("Не отправлено писем: " + failed + " из " + emails.size());
+            }
+            logger.info("Отправлено email: {}", emails.size());
+
+            return null;
+        }, throwable -> {
+            int parked = 0;
+            for (int i = 0; i < emails.size(); i++) {
+                if (!delivered[i]) {
+                    failedEmailPublisher.park(emails.get(i));
+                    parked++;
+                }
+            }
+            logger.warn("Email service unavailable. {} of {} messages were parked for retry.", parked, emails.size());
 
             return null;
         });
     }
-}
\ No newline at end of file
+
+    // Сервер не принял соединение или авторизацию: PooledJavaMailSender бросает MailSendException
+    // без списка писем, потому что ни одно письмо не дошло до отправки
+    private boolean isConnectionFailure(MailException e) {
+        return e instanceof MailAuthenticationException
+                || e instanceof MailSendException mailSendException && mailSendException.getFailedMessages().isEmpty();
+    }
+
+    // Без Circuit Breaker и fallback: ошибка должна дойти до @RetryableTopic и перенести письмо в следующий retry-топик
+    public void deliver(EmailRequestDto email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(email.getTo());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        message.setFrom("sorohov344@gmail.com");
+
+        emailRateLimiter.acquire(email.getTo());
+        mailSender.send(message);
+    }
+}
@@ -0,0 +1,241 @@
+package org.example.notificationservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+// Помнит id обработанных событий минимум одно окно. Id лежат в двух поколениях — открытых хеш-таблицах
+// на массивах long без объектов-обёрток; когда текущее поколение старше окна или заполнено, старое
+// очищается и становится текущим. Поэтому проверка O(1), а память ограничена max-ids
+@Component
+public class EventDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventDeduplicator.class);
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final double LOAD_FACTOR = 0.75;
+
+    private final long windowMillis;
+    private final Path snapshotFile;
+    private final LongSupplier clock;
+    private final Counter duplicatesCounter;
+    private Generation current;
+    private Generation previous;
+
+    @Autowired
+    public EventDeduplicator(MeterRegistry meterRegistry,
+                             @Value("${notification-service.dedup.window:24h}") Duration window,
+                             @Value("${notification-service.dedup.max-ids:1000000}") int maxIds,
+                             @Value("${notification-service.dedup.snapshot-file:}") String snapshotFile) {
+        this(meterRegistry, window, maxIds, snapshotFile, System::currentTimeMillis);
+    }
+
+    EventDeduplicator(MeterRegistry meterRegistry, Duration window, int maxIds, String snapshotFile,
+                      LongSupplier clock) {
+        if (window.isNegative() || window.isZero() || maxIds < 2) {
+            throw new IllegalArgumentException("Окно дедупликации должно быть больше 0, а max-ids не меньше 2");
+        }
+        this.windowMillis = window.toMillis();
+        this.snapshotFile = snapshotFile == null || snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.clock = clock;
+        this.duplicatesCounter = meterRegistry.counter("notification.events.duplicates");
+
+        long now = clock.getAsLong();
+        this.current = new Generation(maxIds / 2, now);
+        this.previous = new Generation(maxIds / 2, now);
+
+        meterRegistry.gauge("notification.events.dedup.size", this, EventDeduplicator::size);
+    }
+
+    // События без id (от старых версий user-service) не дедуплицируются
+    public synchronized boolean markIfNew(UUID eventId) {
+        if (eventId == null) {
+            return true;
+        }
+        long msb = eventId.getMostSignificantBits();
+        long lsb = eventId.getLeastSignificantBits();
+        if (msb == 0 && lsb == 0) {
+            return true;
+        }
+
+        long now = clock.getAsLong();
+        if (now - current.startedAt >= windowMillis) {
+            rotate(now);
+        }
+        if (current.contains(msb, lsb) || previous.contains(msb, lsb)) {
+            duplicatesCounter.increment();
+            return false;
+        }
+        if (current.isFull()) {
+            logger.warn("Dedup generation filled up before the window elapsed, ids are kept for {} ms only",
+                    now - previous.startedAt);
+            rotate(now);
+        }
+        current.insert(msb, lsb);
+        return true;
+    }
+
+    public synchronized int size() {
+        return current.size + previous.size;
+    }
+
+    @PostConstruct
+    public synchronized void loadSnapshot() {
+        if (snapshotFile == null || !Files.exists(snapshotFile)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                logger.warn("Unsupported dedup snapshot version {} in {}, starting empty", version, snapshotFile);
+                return;
+            }
+            long now = clock.getAsLong();
+            readGeneration(in, previous, now);
+            readGeneration(in, current, now);
+            logger.info("Loaded {} event ids from dedup snapshot {}", size(), snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Failed to load dedup snapshot {}, starting empty", snapshotFile, e);
+            long now = clock.getAsLong();
+            previous.clear(now);
+            current.clear(now);
+        }
+    }
+
+    // Снимок пишется во временный файл и атомарно подменяет старый, чтобы падение при записи не испортило его
+    @PreDestroy
+    public synchronized void saveSnapshot() {
+        if (snapshotFile == null) {
+            return;
+        }
+
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(SNAPSHOT_VERSION);
+                writeGeneration(out, previous);
+                writeGeneration(out, current);
+            }
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logger.info("Saved {} event ids to dedup snapshot {}", size(), snapshotFile);
+        } catch (IOException e) {
+            logger.warn("Failed to save dedup snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private void rotate(long now) {
+        Generation expired = previous;
+        expired.clear(now);
+        previous = current;
+        current = expired;
+    }
+
+    private void readGeneration(DataInputStream in, Generation generation, long now) throws IOException {
+        long startedAt = in.readLong();
+        int count = in.readInt();
+        // Поколение старше двух окон уже было бы вытеснено, его id не восстанавливаются
+        boolean expired = now - startedAt >= 2 * windowMillis;
+
+        generation.clear(expired ? now : startedAt);
+        for (int i = 0; i < count; i++) {
+            long msb = in.readLong();
+            long lsb = in.readLong();
+            if (!expired && !generation.isFull() && !generation.contains(msb, lsb)) {
+                generation.insert(msb, lsb);
+            }
+        }
+    }
+
+    private void writeGeneration(DataOutputStream out, Generation generation) throws IOException {
+        out.writeLong(generation.startedAt);
+        out.writeInt(generation.size);
+        for (int slot = 0; slot < generation.msbs.length; slot++) {
+            if (!generation.isEmpty(slot)) {
+                out.writeLong(generation.msbs[slot]);
+                out.writeLong(generation.lsbs[slot]);
+            }
+        }
+    }
+
+    // Открытая адресация с линейным пробированием; слот из двух нулей считается пустым
+    private static final class Generation {
+
+        private final long[] msbs;
+        private final long[] lsbs;
+        private final int capacity;
+        private int size;
+        private long startedAt;
+
+        Generation(int capacity, long startedAt) {
+            int slots = (int) Math.ceil(capacity / LOAD_FACTOR) + 1;
+            this.msbs = new long[slots];
+            this.lsbs = new long[slots];
+            this.capacity = capacity;
+            this.startedAt = startedAt;
+        }
+
+        boolean contains(long msb, long lsb) {
+            for (int slot = slotOf(msb, lsb); !isEmpty(slot); slot = next(slot)) {
+                if (msbs[slot] == msb && lsbs[slot] == lsb) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void insert(long msb, long lsb) {
+            int slot = slotOf(msb, lsb);
+            while (!isEmpty(slot)) {
+                slot = next(slot);
+            }
+            msbs[slot] = msb;
+            lsbs[slot] = lsb;
+            size++;
+        }
+
+        boolean isFull() {
+            return size >= capacity;
+        }
+
+        boolean isEmpty(int slot) {
+            return msbs[slot] == 0 && lsbs[slot] == 0;
+        }
+
+        void clear(long startedAt) {
+            if (size > 0) {
+                Arrays.fill(msbs, 0L);
+                Arrays.fill(lsbs, 0L);
+                size = 0;
+            }
+            this.startedAt = startedAt;
+        }
+
+        private int slotOf(long msb, long lsb) {
+            long hash = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+            return (int) (((hash >>> 32) * msbs.length) >>> 32);
+        }
+
+        private int next(int slot) {
+            return slot + 1 == msbs.length ? 0 : slot + 1;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.notificationservice.service;
+
+import org.example.notificationservice.config.NotificationTemplateProperties;
+import org.example.notificationservice.config.NotificationTemplateProperties.TemplateSource;
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+public class NotificationTemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationTemplateRegistry.class);
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private final Environment environment;
+    private volatile Map<String, CompiledEmail> templates;
+
+    public NotificationTemplateRegistry(Environment environment) {
+        this.environment = environment;
+        this.templates = load();
+    }
+
+    public EmailRequestDto render(String templateName, String to, Map<String, ?> variables) {
+        CompiledEmail email = templates.get(templateName);
+        if (email == null) {
+            throw new IllegalArgumentException("Шаблон уведомления не найден: " + templateName);
+        }
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        email.subject.renderTo(buffer, variables);
+        String subject = buffer.toString();
+
+        buffer.setLength(0);
+        email.body.renderTo(buffer, variables);
+        String body = buffer.toString();
+
+        return new EmailRequestDto(to, subject, body);
+    }
+
+    // Шаблоны из config-server подхватываются после /actuator/refresh без перезапуска.
+    // Ошибочная конфигурация при старте останавливает запуск, а при обновлении только логируется:
+    // продолжают работать прежние шаблоны
+    @EventListener
+    public void onEnvironmentChange(EnvironmentChangeEvent event) {
+        if (event.getKeys().stream().anyMatch(key -> key.startsWith(NotificationTemplateProperties.PREFIX))) {
+            try {
+                templates = load();
+                logger.info("Notification templates reloaded");
+            } catch (IllegalStateException e) {
+                logger.error("Notification templates not reloaded, keeping previous ones: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Map<String, CompiledEmail> load() {
+        Map<String, TemplateSource> sources = Binder.get(environment)
+                .bind(NotificationTemplateProperties.PREFIX, Bindable.mapOf(String.class, TemplateSource.class))
+                .orElseGet(Map::of);
+
+        Map<String, CompiledEmail> compiled = new HashMap<>();
+        sources.forEach((name, source) -> compiled.put(name, new CompiledEmail(
+                CompiledTemplate.compile(required(name, "subject", source.getSubject())),
+                CompiledTemplate.compile(required(name, "body", source.getBody())))));
+        return compiled;
+    }
+
+    private static String required(String templateName, String field, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalStateException("В шаблоне уведомления " + templateName + " не задан " + field + " ("
+                    + NotificationTemplateProperties.PREFIX + "." + templateName + "." + field + ")");
+        }
+        return value;
+    }
+
+    private record CompiledEmail(CompiledTemplate subject, CompiledTemplate body) {
+    }
+}
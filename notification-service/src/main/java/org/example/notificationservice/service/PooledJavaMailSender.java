@@ -0,0 +1,106 @@
+package org.example.notificationservice.service;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// В отличие от JavaMailSenderImpl не закрывает SMTP-соединение после отправки, а возвращает его в пул,
+// поэтому TCP-подключение, STARTTLS и авторизация выполняются один раз на соединение, а не на письмо
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final BlockingQueue<Transport> idleTransports;
+
+    public PooledJavaMailSender(int poolSize) {
+        this.idleTransports = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        Transport transport = borrowTransport();
+
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        mimeMessage.setHeader("Message-ID", messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                } catch (Exception e) {
+                    failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessage, e);
+                }
+            }
+        } finally {
+            releaseTransport(transport);
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    public int getIdleTransportCount() {
+        return idleTransports.size();
+    }
+
+    @Override
+    public void destroy() {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            closeQuietly(transport);
+        }
+    }
+
+    private Transport borrowTransport() {
+        Transport transport;
+        while ((transport = idleTransports.poll()) != null) {
+            // Для SMTP isConnected() отправляет NOOP и замечает соединения, закрытые сервером по таймауту
+            if (transport.isConnected()) {
+                return transport;
+            }
+            closeQuietly(transport);
+        }
+
+        // Без списка писем: ни одно не отправлялось, и вызывающий код отличает отказ сервера от ошибки письма
+        try {
+            return connectTransport();
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (Exception e) {
+            throw new MailSendException("Mail server connection failed", e);
+        }
+    }
+
+    private void releaseTransport(Transport transport) {
+        if (!transport.isConnected() || !idleTransports.offer(transport)) {
+            closeQuietly(transport);
+        }
+    }
+
+    private void closeQuietly(Transport transport) {
+        try {
+            transport.close();
+        } catch (MessagingException ignored) {
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.notificationservice.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Поведение DirectCircuitBreakerFactory проверяется в user-service, здесь — только подключение и настройки экземпляров
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=localhost:9092",
+        "spring.kafka.admin.auto-create=false"
+})
+class CircuitBreakerFactoryConfigTest {
+
+    @Autowired
+    private CircuitBreakerFactory<?, ?> circuitBreakerFactory;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Test
+    void circuitBreakerFactory_ShouldBeDirectByDefault() {
+        assertInstanceOf(DirectCircuitBreakerFactory.class, circuitBreakerFactory);
+    }
+
+    @Test
+    void emailServiceBreaker_ShouldUseInstanceSettingsFromApplicationYml() {
+        circuitBreakerFactory.create(CircuitBreakerFactoryConfig.EMAIL_SERVICE);
+
+        CircuitBreakerConfig emailService = circuitBreakerRegistry.circuitBreaker(CircuitBreakerFactoryConfig.EMAIL_SERVICE)
+                .getCircuitBreakerConfig();
+        assertEquals(5, emailService.getSlidingWindowSize());
+        assertEquals(60, emailService.getFailureRateThreshold());
+        assertEquals(Duration.ofSeconds(10).toMillis(), emailService.getWaitIntervalFunctionInOpenState().apply(1));
+    }
+}
@@ -1,12 +1,15 @@
 package org.example.notificationservice.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.example.notificationservice.dto.EmailRequestDto;
 import org.example.notificationservice.dto.UserEventDto;
+import org.example.notificationservice.kafka.UserEventDeserializer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -18,7 +21,8 @@ import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
 @ActiveProfiles("test")
 @TestPropertySource(properties = {
-        "spring.kafka.bootstrap-servers=localhost:9092"
+        "spring.kafka.bootstrap-servers=localhost:9092",
+        "spring.kafka.admin.auto-create=false"
 })
 class KafkaConfigTest {
 
@@ -42,10 +46,7 @@ class KafkaConfigTest {
         assertEquals("notification-service", configProps.get(ConsumerConfig.GROUP_ID_CONFIG));
 
         assertNotNull(configProps.get(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG));
-        assertNotNull(configProps.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
-
-        assertEquals("*", configProps.get(JsonDeserializer.TRUSTED_PACKAGES));
-        assertEquals(UserEventDto.class.getName(), configProps.get(JsonDeserializer.VALUE_DEFAULT_TYPE));
+        assertEquals(UserEventDeserializer.class, configProps.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
         assertEquals("earliest", configProps.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG));
     }
 
@@ -106,4 +107,31 @@ class KafkaConfigTest {
         assertNotNull(factory1.getConsumerFactory());
         assertNotNull(factory2.getConsumerFactory());
     }
-}
\ No newline at end of file
+
+    @Test
+    void batchKafkaListenerContainerFactory_ShouldDeliverBatchesAndCommitPerBatch() {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventDto> factory =
+                kafkaConfig.batchKafkaListenerContainerFactory();
+
+        assertTrue(factory.isBatchListener());
+        assertEquals(ContainerProperties.AckMode.BATCH, factory.getContainerProperties().getAckMode());
+        assertEquals("500", factory.getContainerProperties().getKafkaConsumerProperties()
+                .getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+    }
+
+    @Test
+    void listenerContainerFactories_ShouldUseConfiguredConcurrency() {
+        assertEquals(3, kafkaConfig.kafkaListenerContainerFactory().createContainer("user-events").getConcurrency());
+        assertEquals(3, kafkaConfig.batchKafkaListenerContainerFactory().createContainer("user-events").getConcurrency());
+    }
+
+    @Test
+    void emailConsumerFactory_ShouldReadEmailRequestsRegardlessOfTypeHeaders() {
+        Map<String, Object> configProps = kafkaConfig.emailConsumerFactory().getConfigurationProperties();
+
+        assertEquals("notification-service-retry", configProps.get(ConsumerConfig.GROUP_ID_CONFIG));
+        assertEquals(EmailRequestDto.class.getName(), configProps.get(JsonDeserializer.VALUE_DEFAULT_TYPE));
+        assertEquals(false, configProps.get(JsonDeserializer.USE_TYPE_INFO_HEADERS));
+        assertNotNull(kafkaConfig.emailKafkaListenerContainerFactory().getConsumerFactory());
+    }
+}
@@ -1,10 +1,13 @@
 package org.example.notificationservice.controller;
-import org.example.notificationservice.service.EmailService;
+import org.example.notificationservice.kafka.DeadLetterReplayer;
+import org.example.notificationservice.service.EmailDispatcher;
+import org.example.notificationservice.service.NotificationTemplateRegistry;
 import org.example.notificationservice.dto.EmailRequestDto;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -16,13 +19,17 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(EmailController.class)
+@Import(NotificationTemplateRegistry.class)
 class EmailControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private EmailService emailService;
+    private EmailDispatcher emailDispatcher;
+
+    @MockBean
+    private DeadLetterReplayer deadLetterReplayer;
 
     @Test
     void sendEmail_ValidRequest_Success() throws Exception {
@@ -39,7 +46,7 @@ class EmailControllerTest {
                         """))
                 .andExpect(status().isOk());
 
-        verify(emailService).sendEmail("test@example.com", "Test Subject", "Test Body");
+        verify(emailDispatcher).dispatch("test@example.com", "Test Subject", "Test Body");
     }
 
     @Test
@@ -49,7 +56,7 @@ class EmailControllerTest {
                         .param("userName", "John Doe"))
                 .andExpect(status().isOk());
 
-        verify(emailService).sendEmail(
+        verify(emailDispatcher).dispatch(
                 "test@example.com",
                 "Добро пожаловать!",
                 "Здравствуйте, John Doe! Ваш аккаунт на сайте был успешно создан."
@@ -63,13 +70,31 @@ class EmailControllerTest {
                         .param("userName", "John Doe"))
                 .andExpect(status().isOk());
 
-        verify(emailService).sendEmail(
+        verify(emailDispatcher).dispatch(
                 "test@example.com",
                 "Аккаунт удален",
                 "Здравствуйте, John Doe! Ваш аккаунт был удалён."
         );
     }
 
+    @Test
+    void replayDeadLetters_ReturnsReplayedCount() throws Exception {
+        when(deadLetterReplayer.replay(20)).thenReturn(7);
+
+        mockMvc.perform(post("/api/notifications/dead-letters/replay")
+                        .param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("7"));
+    }
+
+    @Test
+    void replayDeadLetters_WithoutLimit_UsesDefault() throws Exception {
+        mockMvc.perform(post("/api/notifications/dead-letters/replay"))
+                .andExpect(status().isOk());
+
+        verify(deadLetterReplayer).replay(100);
+    }
+
     @Test
     void healthCheck_ReturnsServiceStatus() throws Exception {
         mockMvc.perform(get("/api/notifications/health"))
@@ -84,7 +109,7 @@ class EmailControllerTest {
                         .param("userName", ""))
                 .andExpect(status().isOk());
 
-        verify(emailService).sendEmail(
+        verify(emailDispatcher).dispatch(
                 "test@example.com",
                 "Добро пожаловать!",
                 "Здравствуйте, ! Ваш аккаунт на сайте был успешно создан."
@@ -98,7 +123,7 @@ class EmailControllerTest {
                         .param("userName", "Иван Иванов"))
                 .andExpect(status().isOk());
 
-        verify(emailService).sendEmail(
+        verify(emailDispatcher).dispatch(
                 "test@example.com",
                 "Аккаунт удален",
                 "Здравствуйте, Иван Иванов! Ваш аккаунт был удалён."
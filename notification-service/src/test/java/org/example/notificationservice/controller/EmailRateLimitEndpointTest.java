@@ -0,0 +1,31 @@
+package org.example.notificationservice.controller;
+
+import org.example.notificationservice.service.EmailRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailRateLimitEndpointTest {
+
+    @Mock
+    private EmailRateLimiter emailRateLimiter;
+
+    @InjectMocks
+    private EmailRateLimitEndpoint endpoint;
+
+    @Test
+    void rateLimits_ShouldReturnLimiterSnapshot() {
+        Map<String, Object> snapshot = Map.of("global", Map.of("availableTokens", 42.0));
+        when(emailRateLimiter.snapshot()).thenReturn(snapshot);
+
+        assertEquals(snapshot, endpoint.rateLimits());
+    }
+}
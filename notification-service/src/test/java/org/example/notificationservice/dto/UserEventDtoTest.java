@@ -2,6 +2,8 @@ package org.example.notificationservice.dto;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserEventDtoTest {
@@ -14,6 +16,8 @@ class UserEventDtoTest {
         assertNull(dto.getOperation());
         assertNull(dto.getEmail());
         assertNull(dto.getUserName());
+        assertNull(dto.getEventId());
+        assertNull(dto.getTimestamp());
     }
 
     @Test
@@ -109,4 +113,15 @@ class UserEventDtoTest {
         assertEquals("new@example.com", dto.getEmail());
         assertEquals("New Name", dto.getUserName());
     }
-}
\ No newline at end of file
+
+    @Test
+    void constructorWithEventId_SetsIdAndTimestamp() {
+        UUID eventId = UUID.randomUUID();
+
+        UserEventDto dto = new UserEventDto("CREATE", "test@example.com", "John Doe", eventId, 1700000000000L);
+
+        assertEquals("CREATE", dto.getOperation());
+        assertEquals(eventId, dto.getEventId());
+        assertEquals(1700000000000L, dto.getTimestamp());
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.notificationservice.integration;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.example.notificationservice.kafka.DeadLetterReplayer;
+import org.example.notificationservice.kafka.FailedEmailPublisher;
+import org.example.notificationservice.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = {
+        "notification-service.retry.attempts=3",
+        "notification-service.retry.initial-delay-ms=100",
+        "notification-service.retry.multiplier=2",
+        "notification-service.retry.max-delay-ms=1000"
+})
+@ActiveProfiles("test")
+@EmbeddedKafka(
+        partitions = 1,
+        topics = {"user-events"},
+        brokerProperties = {
+                "listeners=PLAINTEXT://localhost:0",
+                "port=0"
+        }
+)
+class EmailRetryIntegrationTest {
+
+    @Autowired
+    private FailedEmailPublisher failedEmailPublisher;
+
+    @Autowired
+    private DeadLetterReplayer deadLetterReplayer;
+
+    @Autowired
+    private KafkaTemplate<String, EmailRequestDto> kafkaTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void whenDeliveryKeepsFailing_thenEmailEndsInDeadLetterTopicAndCanBeReplayed() {
+        doThrow(new MailSendException("SMTP unavailable")).when(emailService).deliver(any());
+
+        failedEmailPublisher.park(new EmailRequestDto("retry@example.com", "Добро пожаловать!", "Body"));
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(emailService, times(3)).deliver(argThat(email -> "retry@example.com".equals(email.getTo()))));
+
+        doNothing().when(emailService).deliver(any());
+        await().atMost(30, TimeUnit.SECONDS).until(() -> deadLetterReplayer.replay(10) == 1);
+
+        await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(emailService, times(4)).deliver(argThat(email -> "retry@example.com".equals(email.getTo()))));
+        assertEquals(0, deadLetterReplayer.replay(10));
+    }
+
+    @Test
+    void whenReplayLimitIsSmallerThanBacklog_thenNextReplayContinuesWithoutLosingEmails() throws Exception {
+        await().atMost(30, TimeUnit.SECONDS).until(() -> deadLetterReplayer.replay(100) == 0);
+        for (int i = 0; i < 5; i++) {
+            String to = "backlog" + i + "@example.com";
+            kafkaTemplate.send(FailedEmailPublisher.DLT_TOPIC, to, new EmailRequestDto(to, "Subject", "Body")).get();
+        }
+
+        assertEquals(2, deadLetterReplayer.replay(2));
+        assertEquals(3, deadLetterReplayer.replay(10));
+        assertEquals(0, deadLetterReplayer.replay(10));
+
+        for (int i = 0; i < 5; i++) {
+            String to = "backlog" + i + "@example.com";
+            await().atMost(30, TimeUnit.SECONDS).untilAsserted(() ->
+                    verify(emailService).deliver(argThat(email -> to.equals(email.getTo()))));
+        }
+    }
+}
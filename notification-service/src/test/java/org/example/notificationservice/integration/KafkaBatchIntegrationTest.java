@@ -0,0 +1,68 @@
+package org.example.notificationservice.integration;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.example.notificationservice.dto.UserEventDto;
+import org.example.notificationservice.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "notification-service.kafka.batch-listener.enabled=true")
+@ActiveProfiles("test")
+@EmbeddedKafka(
+        partitions = 1,
+        topics = {"user-events"},
+        brokerProperties = {
+                "listeners=PLAINTEXT://localhost:0",
+                "port=0"
+        }
+)
+class KafkaBatchIntegrationTest {
+
+    private static final int EVENTS = 200;
+
+    @Autowired
+    private KafkaTemplate<String, UserEventDto> kafkaTemplate;
+
+    @MockBean
+    private EmailService emailService;
+
+    @Test
+    void whenManyEventsSent_thenEmailsAreSentInBulk() {
+        List<EmailRequestDto> sentEmails = new CopyOnWriteArrayList<>();
+        AtomicInteger bulkCalls = new AtomicInteger();
+        doAnswer(invocation -> {
+            bulkCalls.incrementAndGet();
+            sentEmails.addAll(invocation.getArgument(0));
+            return null;
+        }).when(emailService).sendEmails(anyList());
+
+        for (int i = 0; i < EVENTS; i++) {
+            String operation = i % 2 == 0 ? "CREATE" : "DELETE";
+            kafkaTemplate.send("user-events", new UserEventDto(operation, "user" + i + "@example.com", "User " + i));
+        }
+        kafkaTemplate.flush();
+
+        await().atMost(15, TimeUnit.SECONDS).untilAsserted(() -> assertEquals(EVENTS, sentEmails.size()));
+
+        assertTrue(bulkCalls.get() < EVENTS);
+        assertEquals(EVENTS / 2, sentEmails.stream().filter(email -> "Добро пожаловать!".equals(email.getSubject())).count());
+        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+    }
+}
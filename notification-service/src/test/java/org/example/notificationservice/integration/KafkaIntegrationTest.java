@@ -1,22 +1,29 @@
 package org.example.notificationservice.integration;
 
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.example.notificationservice.dto.UserEventDto;
+import org.example.notificationservice.kafka.UserEventBinaryCodec;
 import org.example.notificationservice.service.EmailService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
 import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
 import static org.awaitility.Awaitility.await;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
-@SpringBootTest
+@SpringBootTest(properties = "notification-service.kafka.batch-listener.enabled=false")
 @ActiveProfiles("test")
 @EmbeddedKafka(
         partitions = 1,
@@ -31,6 +38,9 @@ class KafkaIntegrationTest {
     @Autowired
     private KafkaTemplate<String, UserEventDto> kafkaTemplate;
 
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
     @MockBean
     private EmailService emailService;
 
@@ -99,4 +109,26 @@ class KafkaIntegrationTest {
             verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenBinaryEventSent_thenEmailServiceCalled() {
+        byte[] binaryEvent = UserEventBinaryCodec.encode(new UserEventDto("CREATE", "binary@example.com",
+                "Binary User", UUID.randomUUID(), System.currentTimeMillis()));
+        DefaultKafkaProducerFactory<String, byte[]> producerFactory = new DefaultKafkaProducerFactory<>(
+                KafkaTestUtils.producerProps(embeddedKafka), new StringSerializer(), new ByteArraySerializer());
+
+        try {
+            new KafkaTemplate<>(producerFactory).send("user-events", binaryEvent);
+
+            await().atMost(10, TimeUnit.SECONDS).untilAsserted(() -> {
+                verify(emailService).sendEmail(
+                        eq("binary@example.com"),
+                        eq("Добро пожаловать!"),
+                        contains("Binary User")
+                );
+            });
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+}
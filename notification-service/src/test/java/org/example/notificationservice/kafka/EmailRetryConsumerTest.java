@@ -0,0 +1,40 @@
+package org.example.notificationservice.kafka;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.example.notificationservice.service.EmailService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailRetryConsumerTest {
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private EmailRetryConsumer emailRetryConsumer;
+
+    @Test
+    void retry_ShouldDeliverEmail() {
+        EmailRequestDto email = new EmailRequestDto("test@example.com", "Subject", "Body");
+
+        emailRetryConsumer.retry(email);
+
+        verify(emailService).deliver(email);
+    }
+
+    @Test
+    void retry_WhenDeliveryFails_ShouldRethrowSoRecordMovesToNextRetryTopic() {
+        EmailRequestDto email = new EmailRequestDto("test@example.com", "Subject", "Body");
+        doThrow(new MailSendException("SMTP error")).when(emailService).deliver(email);
+
+        assertThrows(MailSendException.class, () -> emailRetryConsumer.retry(email));
+    }
+}
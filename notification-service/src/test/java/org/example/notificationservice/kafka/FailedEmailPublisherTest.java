@@ -0,0 +1,46 @@
+package org.example.notificationservice.kafka;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedEmailPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, EmailRequestDto> kafkaTemplate;
+
+    @InjectMocks
+    private FailedEmailPublisher failedEmailPublisher;
+
+    @Test
+    void park_ShouldSendEmailToFailedEmailsTopicKeyedByRecipient() {
+        EmailRequestDto email = new EmailRequestDto("test@example.com", "Subject", "Body");
+        when(kafkaTemplate.send("failed-emails", "test@example.com", email))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        failedEmailPublisher.park(email);
+
+        verify(kafkaTemplate).send("failed-emails", "test@example.com", email);
+    }
+
+    @Test
+    void park_WhenBrokerUnavailable_ShouldNotThrow() {
+        EmailRequestDto email = new EmailRequestDto("test@example.com", "Subject", "Body");
+        CompletableFuture<SendResult<String, EmailRequestDto>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("Broker unavailable"));
+        when(kafkaTemplate.send("failed-emails", "test@example.com", email)).thenReturn(failed);
+
+        assertDoesNotThrow(() -> failedEmailPublisher.park(email));
+    }
+}
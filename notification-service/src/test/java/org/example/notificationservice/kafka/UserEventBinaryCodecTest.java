@@ -0,0 +1,49 @@
+package org.example.notificationservice.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.example.notificationservice.dto.UserEventDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventBinaryCodecTest {
+
+    // Эталон версии 1 из UserEventBinaryCodecTest в user-service: событие с userId = 7
+    private static final String VERSION_1_EVENT = "0107000000000000000100000000000000020000018bcfe56800"
+            + "0707435245415445066140622e6309d098d0b2d0b0d0bd";
+
+    @Test
+    void decode_ShouldReadEventsWrittenByUserService() {
+        UserEventDto event = UserEventBinaryCodec.decode(HexFormat.of().parseHex(VERSION_1_EVENT));
+
+        assertEquals("CREATE", event.getOperation());
+        assertEquals("a@b.c", event.getEmail());
+        assertEquals("Иван", event.getUserName());
+        assertEquals(new UUID(1, 2), event.getEventId());
+        assertEquals(1700000000000L, event.getTimestamp());
+    }
+
+    @Test
+    void encode_ThenDecode_ShouldRestoreEvent() {
+        UserEventDto event = new UserEventDto("DELETE", "jane@example.com", null, UUID.randomUUID(), 42L);
+
+        UserEventDto decoded = UserEventBinaryCodec.decode(UserEventBinaryCodec.encode(event));
+
+        assertEquals("DELETE", decoded.getOperation());
+        assertEquals("jane@example.com", decoded.getEmail());
+        assertNull(decoded.getUserName());
+        assertEquals(event.getEventId(), decoded.getEventId());
+        assertEquals(42L, decoded.getTimestamp());
+    }
+
+    @Test
+    void decode_WithNewerVersion_ShouldThrowException() {
+        byte[] data = HexFormat.of().parseHex(VERSION_1_EVENT);
+        data[0] = 2;
+
+        assertThrows(SerializationException.class, () -> UserEventBinaryCodec.decode(data));
+    }
+}
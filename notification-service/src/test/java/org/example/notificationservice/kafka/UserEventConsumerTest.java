@@ -1,19 +1,35 @@
 package org.example.notificationservice.kafka;
 
+import org.example.notificationservice.dto.EmailRequestDto;
 import org.example.notificationservice.dto.UserEventDto;
-import org.example.notificationservice.service.EmailService;
+import org.example.notificationservice.service.EmailDispatcher;
+import org.example.notificationservice.service.EventDeduplicator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.notificationservice.service.NotificationTemplateRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
-import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
 
+import java.io.IOException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -22,207 +38,166 @@ import static org.mockito.Mockito.*;
 class UserEventConsumerTest {
 
     @Mock
-    private EmailService emailService;
+    private EmailDispatcher emailDispatcher;
 
-    @Mock
-    private CircuitBreakerFactory circuitBreakerFactory;
-
-    @Mock
-    private CircuitBreaker circuitBreaker;
+    @Captor
+    private ArgumentCaptor<List<EmailRequestDto>> emailsCaptor;
 
     private UserEventConsumer userEventConsumer;
 
     @BeforeEach
-    void setUp() {
-        userEventConsumer = new UserEventConsumer(emailService, circuitBreakerFactory);
-    }
+    void setUp() throws IOException {
+        StandardEnvironment environment = new StandardEnvironment();
+        new YamlPropertySourceLoader().load("application", new ClassPathResource("application.yml"))
+                .forEach(environment.getPropertySources()::addLast);
 
-    @Test
-    void consumeUserEvent_WhenEmailServiceThrowsException_ShouldLogAndRethrow() {
-        // Arrange
-        UserEventDto userEvent = new UserEventDto();
-        userEvent.setOperation("CREATE");
-        userEvent.setEmail("test@example.com");
-        userEvent.setUserName("Test User");
-
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
-
-        doThrow(new RuntimeException("Email service error")).when(emailService)
-                .sendEmail(eq("test@example.com"), anyString(), anyString());
-
-        doAnswer(invocation -> {
-            try {
-                return invocation.<java.util.function.Supplier<Void>>getArgument(0).get();
-            } catch (Exception e) {
-                throw e;
-            }
-        }).when(circuitBreaker).run(any(), any());
-
-        UserEventConsumer spyConsumer = spy(userEventConsumer);
-        Logger logger = LoggerFactory.getLogger(UserEventConsumer.class);
-
-        try {
-            spyConsumer.consumeUserEvent(userEvent);
-        } catch (RuntimeException e) {
-            verify(emailService).sendEmail(eq("test@example.com"), anyString(), anyString());
-        }
+        userEventConsumer = new UserEventConsumer(emailDispatcher, new NotificationTemplateRegistry(environment),
+                new EventDeduplicator(new SimpleMeterRegistry(), Duration.ofHours(1), 100, ""));
     }
 
     @Test
-    void consumeUserEvent_WhenCreateOperationAndEmailFails_ShouldCatchAndRethrowException() {
-        // Arrange
+    void consumeUserEvent_WhenCreateOperationSuccess_ShouldSendWelcomeEmail() {
         UserEventDto userEvent = new UserEventDto();
         userEvent.setOperation("CREATE");
         userEvent.setEmail("test@example.com");
         userEvent.setUserName("Test User");
 
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
-
-        doThrow(new RuntimeException("SMTP connection failed"))
-                .when(emailService)
-                .sendEmail(eq("test@example.com"), anyString(), anyString());
-
-        doAnswer(invocation -> {
-            try {
+        when(emailDispatcher.dispatch(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
-                return invocation.<java.util.function.Supplier<Void>>getArgument(0).get();
-            } catch (Exception e) {
-                throw e;
-            }
-        }).when(circuitBreaker).run(any(), any());
+        userEventConsumer.consumeUserEvent(userEvent);
 
-        assertThrows(RuntimeException.class, () ->
-                userEventConsumer.consumeUserEvent(userEvent)
+        verify(emailDispatcher).dispatch(
+                eq("test@example.com"),
+                eq("Добро пожаловать!"),
+                eq("Здравствуйте, Test User! Ваш аккаунт был успешно создан.")
         );
-
-        verify(circuitBreakerFactory).create("kafkaConsumer");
-        verify(circuitBreaker).run(any(), any());
     }
 
     @Test
-    void consumeUserEvent_WhenDeleteOperationAndEmailFails_ShouldCatchAndRethrowException() {
+    void consumeUserEvent_WhenDeleteOperationSuccess_ShouldSendGoodbyeEmail() {
         UserEventDto userEvent = new UserEventDto();
         userEvent.setOperation("DELETE");
         userEvent.setEmail("test@example.com");
         userEvent.setUserName("Test User");
 
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
-
-        doThrow(new RuntimeException("Mail server unavailable"))
-                .when(emailService)
-                .sendEmail(eq("test@example.com"), anyString(), anyString());
+        when(emailDispatcher.dispatch(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
-        doAnswer(invocation -> {
-            try {
-
-                return invocation.<java.util.function.Supplier<Void>>getArgument(0).get();
-            } catch (Exception e) {
-                throw e;
-            }
-        }).when(circuitBreaker).run(any(), any());
+        userEventConsumer.consumeUserEvent(userEvent);
 
-        assertThrows(RuntimeException.class, () ->
-                userEventConsumer.consumeUserEvent(userEvent)
+        verify(emailDispatcher).dispatch(
+                eq("test@example.com"),
+                eq("Аккаунт удален"),
+                eq("Здравствуйте, Test User! Ваш аккаунт был удалён.")
         );
-
-        verify(circuitBreakerFactory).create("kafkaConsumer");
-        verify(circuitBreaker).run(any(), any());
     }
 
     @Test
-    void consumeUserEvent_WhenUnexpectedExceptionInProcessing_ShouldLogAndRethrow() {
-        UserEventDto userEvent = new UserEventDto();
-        userEvent.setOperation("CREATE");
-        userEvent.setEmail("test@example.com");
-        userEvent.setUserName("Test User");
+    void consumeUserEvent_WithUnknownOperation_ShouldNotSendEmail() {
+        userEventConsumer.consumeUserEvent(new UserEventDto("UPDATE", "test@example.com", "Test User"));
 
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
+        verifyNoInteractions(emailDispatcher);
+    }
 
-        doThrow(new NullPointerException("Unexpected NPE"))
-                .when(emailService)
-                .sendEmail(eq("test@example.com"), anyString(), anyString());
+    @Test
+    void consumeUserEvent_WhenDispatchIsRejected_ShouldRethrowSoOffsetIsNotCommitted() {
+        UserEventDto userEvent = new UserEventDto("CREATE", "test@example.com", "Test User");
 
-        doAnswer(invocation -> {
-            try {
+        doThrow(new RuntimeException("Email dispatch queue is shut down"))
+                .when(emailDispatcher).dispatch(eq("test@example.com"), anyString(), anyString());
 
-                return invocation.<java.util.function.Supplier<Void>>getArgument(0).get();
-            } catch (Exception e) {
-                throw e;
-            }
-        }).when(circuitBreaker).run(any(), any());
+        assertThrows(RuntimeException.class, () -> userEventConsumer.consumeUserEvent(userEvent));
+    }
 
-        assertThrows(NullPointerException.class, () ->
-                userEventConsumer.consumeUserEvent(userEvent)
-        );
+    @Test
+    void consumeUserEvent_WhenSendingFails_ShouldRethrowSoOffsetIsNotCommitted() {
+        UserEventDto userEvent = new UserEventDto("DELETE", "test@example.com", "Test User");
+
+        when(emailDispatcher.dispatch(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Mail server unavailable")));
 
-        verify(circuitBreakerFactory).create("kafkaConsumer");
-        verify(circuitBreaker).run(any(), any());
+        assertThrows(CompletionException.class, () -> userEventConsumer.consumeUserEvent(userEvent));
     }
 
     @Test
-    void consumeUserEvent_WhenCircuitBreakerFallbackDueToException_ShouldCallFallback() {
-        UserEventDto userEvent = new UserEventDto();
-        userEvent.setOperation("CREATE");
-        userEvent.setEmail("test@example.com");
-        userEvent.setUserName("Test User");
+    void consumeUserEvents_ShouldSendEmailsInBulkInArrivalOrder() {
+        List<UserEventDto> userEvents = List.of(
+                new UserEventDto("DELETE", "first@example.com", "First"),
+                new UserEventDto("CREATE", "second@example.com", "Second"),
+                new UserEventDto("UNKNOWN", "third@example.com", "Third"),
+                new UserEventDto("DELETE", "second@example.com", "Second"));
+
+        when(emailDispatcher.dispatchAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
+
+        userEventConsumer.consumeUserEvents(userEvents);
+
+        verify(emailDispatcher).dispatchAll(emailsCaptor.capture());
+        verify(emailDispatcher, never()).dispatch(anyString(), anyString(), anyString());
+
+        List<EmailRequestDto> emails = emailsCaptor.getValue();
+        assertEquals(List.of("first@example.com", "second@example.com", "second@example.com"),
+                emails.stream().map(EmailRequestDto::getTo).toList());
+        assertEquals("Аккаунт удален", emails.get(0).getSubject());
+        assertEquals("Здравствуйте, First! Ваш аккаунт был удалён.", emails.get(0).getBody());
+        assertEquals("Добро пожаловать!", emails.get(1).getSubject());
+        assertEquals("Здравствуйте, Second! Ваш аккаунт был успешно создан.", emails.get(1).getBody());
+        assertEquals("Аккаунт удален", emails.get(2).getSubject());
+    }
 
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
+    @Test
+    void consumeUserEvents_ShouldReturnOnlyAfterBatchIsSent() throws Exception {
+        CompletableFuture<Void> sending = new CompletableFuture<>();
+        when(emailDispatcher.dispatchAll(anyList())).thenReturn(sending);
 
-        doAnswer(invocation -> {
-            java.util.function.Function<Throwable, Void> fallback = invocation.getArgument(1);
-            return fallback.apply(new RuntimeException("Circuit breaker opened"));
-        }).when(circuitBreaker).run(any(), any());
+        CompletableFuture<Void> listener = CompletableFuture.runAsync(() -> userEventConsumer.consumeUserEvents(
+                List.of(new UserEventDto("CREATE", "test@example.com", "Test User"))));
 
-        userEventConsumer.consumeUserEvent(userEvent);
+        verify(emailDispatcher, timeout(5000)).dispatchAll(anyList());
+        assertFalse(listener.isDone());
 
-        verify(circuitBreakerFactory).create("kafkaConsumer");
-        verify(circuitBreaker).run(any(), any());
-        verify(emailService, never()).sendEmail(anyString(), anyString(), anyString());
+        sending.complete(null);
+        listener.get(5, TimeUnit.SECONDS);
     }
 
     @Test
-    void consumeUserEvent_WhenCreateOperationSuccess_ShouldSendWelcomeEmail() {
-        UserEventDto userEvent = new UserEventDto();
-        userEvent.setOperation("CREATE");
-        userEvent.setEmail("test@example.com");
-        userEvent.setUserName("Test User");
+    void consumeUserEvents_WhenSendingFails_ShouldRethrowSoOffsetsAreNotCommitted() {
+        when(emailDispatcher.dispatchAll(anyList()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Dispatch queue is shut down")));
 
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
+        assertThrows(CompletionException.class, () -> userEventConsumer.consumeUserEvents(
+                List.of(new UserEventDto("CREATE", "test@example.com", "Test User"))));
+    }
 
-        doAnswer(invocation -> {
+    @Test
+    void consumeUserEvent_WhenEventRedelivered_ShouldSendEmailOnce() {
+        UserEventDto userEvent = new UserEventDto("CREATE", "test@example.com", "Test User", UUID.randomUUID(),
+                System.currentTimeMillis());
 
-            return invocation.<java.util.function.Supplier<Void>>getArgument(0).get();
-        }).when(circuitBreaker).run(any(), any());
+        when(emailDispatcher.dispatch(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         userEventConsumer.consumeUserEvent(userEvent);
+        userEventConsumer.consumeUserEvent(userEvent);
 
-        verify(emailService).sendEmail(
-                eq("test@example.com"),
-                eq("Добро пожаловать!"),
-                eq("Здравствуйте, Test User! Ваш аккаунт был успешно создан.")
-        );
+        verify(emailDispatcher, times(1)).dispatch(eq("test@example.com"), anyString(), anyString());
     }
 
     @Test
-    void consumeUserEvent_WhenDeleteOperationSuccess_ShouldSendGoodbyeEmail() {
-        UserEventDto userEvent = new UserEventDto();
-        userEvent.setOperation("DELETE");
-        userEvent.setEmail("test@example.com");
-        userEvent.setUserName("Test User");
-
-        when(circuitBreakerFactory.create("kafkaConsumer")).thenReturn(circuitBreaker);
+    void consumeUserEvents_ShouldDropDuplicatesWithinAndAcrossBatches() {
+        UUID firstId = UUID.randomUUID();
+        UserEventDto first = new UserEventDto("CREATE", "first@example.com", "First", firstId, 1L);
+        UserEventDto second = new UserEventDto("CREATE", "second@example.com", "Second", UUID.randomUUID(), 2L);
 
-        doAnswer(invocation -> {
+        when(emailDispatcher.dispatchAll(anyList())).thenReturn(CompletableFuture.completedFuture(null));
 
-            return invocation.<java.util.function.Supplier<Void>>getArgument(0).get();
-        }).when(circuitBreaker).run(any(), any());
-
-        userEventConsumer.consumeUserEvent(userEvent);
+        userEventConsumer.consumeUserEvents(List.of(first, first));
+        userEventConsumer.consumeUserEvents(List.of(
+                new UserEventDto("CREATE", "first@example.com", "First", firstId, 1L), second));
+        userEventConsumer.consumeUserEvents(List.of(second));
 
-        verify(emailService).sendEmail(
-                eq("test@example.com"),
-                eq("Аккаунт удален"),
-                eq("Здравствуйте, Test User! Ваш аккаунт был удалён.")
-        );
+        verify(emailDispatcher, times(2)).dispatchAll(emailsCaptor.capture());
+        assertEquals(List.of("first@example.com", "second@example.com"),
+                emailsCaptor.getAllValues().stream().flatMap(List::stream).map(EmailRequestDto::getTo).toList());
     }
-}
\ No newline at end of file
+}
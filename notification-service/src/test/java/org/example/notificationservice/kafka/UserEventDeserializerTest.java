@@ -0,0 +1,44 @@
+package org.example.notificationservice.kafka;
+
+import org.example.notificationservice.dto.UserEventDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventDeserializerTest {
+
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+    @Test
+    void deserialize_ShouldReadBinaryEvents() {
+        UUID eventId = UUID.randomUUID();
+        byte[] data = UserEventBinaryCodec.encode(
+                new UserEventDto("CREATE", "john@example.com", "John Doe", eventId, 1L));
+
+        UserEventDto event = deserializer.deserialize("user-events", data);
+
+        assertEquals("john@example.com", event.getEmail());
+        assertEquals(eventId, event.getEventId());
+    }
+
+    @Test
+    void deserialize_ShouldReadJsonFromUserServiceIgnoringUnknownFields() {
+        byte[] data = ("{\"operation\":\"DELETE\",\"userId\":2,\"email\":\"jane@example.com\","
+                + "\"userName\":\"Jane Doe\",\"timestamp\":5}").getBytes(StandardCharsets.UTF_8);
+
+        UserEventDto event = deserializer.deserialize("user-events", data);
+
+        assertEquals("DELETE", event.getOperation());
+        assertEquals("Jane Doe", event.getUserName());
+        assertEquals(5L, event.getTimestamp());
+        assertNull(event.getEventId());
+    }
+
+    @Test
+    void deserialize_WithNull_ShouldReturnNull() {
+        assertNull(deserializer.deserialize("user-events", null));
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.notificationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompiledTemplateTest {
+
+    @Test
+    void renderTo_ShouldSubstitutePlaceholders() {
+        CompiledTemplate template = CompiledTemplate.compile("Здравствуйте, {userName}! Ваш email: {email}.");
+
+        assertEquals("Здравствуйте, Иван! Ваш email: ivan@example.com.",
+                render(template, Map.of("userName", "Иван", "email", "ivan@example.com")));
+    }
+
+    @Test
+    void renderTo_WithoutPlaceholders_ShouldReturnText() {
+        assertEquals("Добро пожаловать!", render(CompiledTemplate.compile("Добро пожаловать!"), Map.of()));
+    }
+
+    @Test
+    void renderTo_WithPlaceholderAtEdges_ShouldRenderWholeText() {
+        CompiledTemplate template = CompiledTemplate.compile("{greeting}, {userName}");
+
+        assertEquals("Привет, Иван", render(template, Map.of("greeting", "Привет", "userName", "Иван")));
+    }
+
+    @Test
+    void renderTo_WithMissingVariable_ShouldKeepPlaceholder() {
+        CompiledTemplate template = CompiledTemplate.compile("Здравствуйте, {userName}! Ваш email: {email}.");
+
+        assertEquals("Здравствуйте, Иван! Ваш email: {email}.", render(template, Map.of("userName", "Иван")));
+    }
+
+    @Test
+    void renderTo_WithNullVariable_ShouldKeepPlaceholder() {
+        CompiledTemplate template = CompiledTemplate.compile("Здравствуйте, {userName}!");
+
+        assertEquals("Здравствуйте, {userName}!", render(template, Collections.singletonMap("userName", null)));
+    }
+
+    @Test
+    void renderTo_WithUnclosedBrace_ShouldKeepItAsText() {
+        assertEquals("Скидка {10%", render(CompiledTemplate.compile("Скидка {10%"), Map.of()));
+    }
+
+    @Test
+    void renderTo_ShouldAppendToExistingBuffer() {
+        StringBuilder buffer = new StringBuilder("> ");
+
+        CompiledTemplate.compile("{userName}").renderTo(buffer, Map.of("userName", "Иван"));
+
+        assertEquals("> Иван", buffer.toString());
+    }
+
+    private String render(CompiledTemplate template, Map<String, ?> variables) {
+        StringBuilder buffer = new StringBuilder();
+        template.renderTo(buffer, variables);
+        return buffer.toString();
+    }
+}
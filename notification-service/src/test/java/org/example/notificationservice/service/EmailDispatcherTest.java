@@ -0,0 +1,175 @@
+package org.example.notificationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatcherTest {
+
+    @Mock
+    private EmailService emailService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EmailDispatcher emailDispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        emailDispatcher.shutdown();
+    }
+
+    @Test
+    void dispatch_ShouldSendEmailOnWorkerThread() {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 2, 10, 1);
+        AtomicReference<String> senderThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            senderThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(emailService).sendEmail("test@example.com", "Subject", "Body");
+
+        emailDispatcher.dispatch("test@example.com", "Subject", "Body");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(emailService).sendEmail("test@example.com", "Subject", "Body"));
+        assertTrue(senderThread.get().startsWith("email-dispatch-"));
+    }
+
+    @Test
+    void dispatchAll_ShouldSplitBatchIntoChunksAndCompleteWhenAllAreSent() throws Exception {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 2, 10, 2);
+        List<EmailRequestDto> emails = List.of(
+                new EmailRequestDto("first@example.com", "Subject", "Body"),
+                new EmailRequestDto("second@example.com", "Subject", "Body"),
+                new EmailRequestDto("third@example.com", "Subject", "Body"));
+
+        emailDispatcher.dispatchAll(emails).get(5, TimeUnit.SECONDS);
+
+        verify(emailService).sendEmails(emails.subList(0, 2));
+        verify(emailService).sendEmails(emails.subList(2, 3));
+    }
+
+    @Test
+    void dispatchAll_WhenQueueBudgetIsExhausted_ShouldCountEmailsAndRunChunkOnCallerThread() throws Exception {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 1, 4, 2);
+        CountDownLatch workerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWorker = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBlocked.countDown();
+            releaseWorker.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(emailService).sendEmail(eq("blocking@example.com"), anyString(), anyString());
+        List<EmailRequestDto> emails = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            emails.add(new EmailRequestDto("user" + i + "@example.com", "Subject", "Body"));
+        }
+
+        emailDispatcher.dispatch("blocking@example.com", "Subject", "Body");
+        assertTrue(workerBlocked.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> sent = emailDispatcher.dispatchAll(emails);
+
+        // Очередь на 4 письма вмещает два куска по 2, третий кусок отправляется вызывающим потоком
+        assertEquals(4, emailDispatcher.getQueueSize());
+        assertEquals(4.0, meterRegistry.get("email.dispatch.queue.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("email.dispatch.caller-runs").counter().count());
+        verify(emailService).sendEmails(emails.subList(4, 6));
+        assertFalse(sent.isDone());
+
+        releaseWorker.countDown();
+        sent.get(5, TimeUnit.SECONDS);
+        verify(emailService).sendEmails(emails.subList(0, 2));
+        verify(emailService).sendEmails(emails.subList(2, 4));
+        assertEquals(0, emailDispatcher.getQueueSize());
+    }
+
+    @Test
+    void dispatch_AfterShutdown_ShouldRejectEmail() throws InterruptedException {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 1, 10, 1);
+        emailDispatcher.shutdown();
+
+        assertThrows(RejectedExecutionException.class, () ->
+                emailDispatcher.dispatch("test@example.com", "Subject", "Body"));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void dispatch_ShouldRecordWaitAndSendLatency() {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 1, 10, 1);
+
+        emailDispatcher.dispatch("test@example.com", "Subject", "Body");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() -> {
+            assertEquals(1, meterRegistry.get("email.dispatch.wait").timer().count());
+            assertEquals(1, meterRegistry.get("email.dispatch.send").timer().count());
+        });
+    }
+
+    @Test
+    void dispatch_WhenQueueIsFull_ShouldSendOnCallerThread() throws InterruptedException {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 1, 1, 1);
+        CountDownLatch workerBlocked = new CountDownLatch(1);
+        CountDownLatch releaseWorker = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            workerBlocked.countDown();
+            releaseWorker.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(emailService).sendEmail(eq("blocking@example.com"), anyString(), anyString());
+
+        emailDispatcher.dispatch("blocking@example.com", "Subject", "Body");
+        assertTrue(workerBlocked.await(5, TimeUnit.SECONDS));
+        emailDispatcher.dispatch("queued@example.com", "Subject", "Body");
+        assertEquals(1, emailDispatcher.getQueueSize());
+        assertEquals(1.0, meterRegistry.get("email.dispatch.queue.size").gauge().value());
+
+        emailDispatcher.dispatch("overflow@example.com", "Subject", "Body");
+
+        verify(emailService).sendEmail("overflow@example.com", "Subject", "Body");
+        assertEquals(1.0, meterRegistry.get("email.dispatch.caller-runs").counter().count());
+
+        releaseWorker.countDown();
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(emailService).sendEmail("queued@example.com", "Subject", "Body"));
+    }
+
+    @Test
+    void dispatch_WhenEmailServiceFails_ShouldKeepWorkerAlive() {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 1, 10, 1);
+        doThrow(new RuntimeException("SMTP error"))
+                .when(emailService).sendEmail(eq("broken@example.com"), anyString(), anyString());
+
+        emailDispatcher.dispatch("broken@example.com", "Subject", "Body");
+        emailDispatcher.dispatch("test@example.com", "Subject", "Body");
+
+        await().atMost(5, TimeUnit.SECONDS).untilAsserted(() ->
+                verify(emailService).sendEmail("test@example.com", "Subject", "Body"));
+    }
+
+    @Test
+    void shutdown_ShouldDrainQueuedEmails() throws InterruptedException {
+        emailDispatcher = new EmailDispatcher(emailService, meterRegistry, 1, 100, 1);
+
+        for (int i = 0; i < 20; i++) {
+            emailDispatcher.dispatch("user" + i + "@example.com", "Subject", "Body");
+        }
+        emailDispatcher.shutdown();
+
+        verify(emailService, times(20)).sendEmail(anyString(), eq("Subject"), eq("Body"));
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.notificationservice.service;
+
+import org.example.notificationservice.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailRateLimiterTest {
+
+    @Test
+    void acquire_WithinLimits_ShouldNotDelay() {
+        EmailRateLimiter rateLimiter = new EmailRateLimiter(properties(100, 10, Map.of()));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.acquire("user" + i + "@example.com");
+        }
+
+        assertTrue(System.nanoTime() - start < 50_000_000L);
+        assertEquals(0L, bucket(rateLimiter, "global").get("delayedMessages"));
+    }
+
+    @Test
+    void acquire_WhenDomainLimitExceeded_ShouldDelayInsteadOfDropping() {
+        EmailRateLimiter rateLimiter = new EmailRateLimiter(properties(1000, 1000, Map.of("Gmail.com", 10.0)));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 13; i++) {
+            rateLimiter.acquire("user" + i + "@gmail.com");
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis >= 250, "Expected throttling, elapsed " + elapsedMillis + " ms");
+        assertEquals(3L, bucket(rateLimiter, "gmail.com").get("delayedMessages"));
+        assertEquals(0L, bucket(rateLimiter, "global").get("delayedMessages"));
+    }
+
+    @Test
+    void acquire_ForUnconfiguredDomain_ShouldOnlyUseGlobalLimit() {
+        EmailRateLimiter rateLimiter = new EmailRateLimiter(properties(1000, 1000, Map.of("gmail.com", 1.0)));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            rateLimiter.acquire("user" + i + "@example.com");
+        }
+
+        assertTrue(System.nanoTime() - start < 50_000_000L);
+    }
+
+    @Test
+    void snapshot_ShouldExposeGlobalAndDomainBuckets() {
+        EmailRateLimiter rateLimiter = new EmailRateLimiter(properties(50, 50, Map.of("yandex.ru", 10.0)));
+
+        Map<String, Object> snapshot = rateLimiter.snapshot();
+
+        assertEquals(2, snapshot.size());
+        assertEquals(50.0, (double) bucket(rateLimiter, "global").get("tokensPerSecond"), 1e-9);
+        assertEquals(10.0, (double) bucket(rateLimiter, "yandex.ru").get("availableTokens"), 1e-9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> bucket(EmailRateLimiter rateLimiter, String name) {
+        return (Map<String, Object>) rateLimiter.snapshot().get(name);
+    }
+
+    private RateLimitProperties properties(double globalPerSecond, double burst, Map<String, Double> domains) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGlobalPerSecond(globalPerSecond);
+        properties.setBurst(burst);
+        properties.setDomains(domains);
+        return properties;
+    }
+}
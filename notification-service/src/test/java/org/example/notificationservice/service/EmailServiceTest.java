@@ -1,16 +1,26 @@
 package org.example.notificationservice.service;
 
-
+import org.example.notificationservice.config.RateLimitProperties;
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.example.notificationservice.kafka.FailedEmailPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -27,11 +37,19 @@ class EmailServiceTest {
     @Mock
     private CircuitBreaker circuitBreaker;
 
+    @Mock
+    private FailedEmailPublisher failedEmailPublisher;
+
+    @Mock
+    private EmailRateLimiter emailRateLimiter;
+
     private EmailService emailService;
 
     @BeforeEach
     void setUp() {
-        emailService = new EmailService(mailSender, circuitBreakerFactory);
+        when(circuitBreakerFactory.create("emailService")).thenReturn(circuitBreaker);
+
+        emailService = new EmailService(mailSender, circuitBreakerFactory, failedEmailPublisher, emailRateLimiter);
     }
 
     @Test
@@ -41,25 +59,19 @@ class EmailServiceTest {
         String subject = "Test Subject";
         String body = "Test Body";
 
-        when(circuitBreakerFactory.create("emailService")).thenReturn(circuitBreaker);
-
         doAnswer(invocation -> {
             java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
 
             return supplier.get();
         }).when(circuitBreaker).run(any(), any());
 
-        java.io.ByteArrayOutputStream outContent = new java.io.ByteArrayOutputStream();
-        System.setOut(new java.io.PrintStream(outContent));
-
         emailService.sendEmail(to, subject, body);
 
         verify(circuitBreakerFactory).create("emailService");
         verify(circuitBreaker).run(any(), any());
+        verify(emailRateLimiter).acquire(to);
         verify(mailSender).send(any(SimpleMailMessage.class));
-        assertTrue(outContent.toString().contains("Email отправлен на: " + to));
-
-        System.setOut(System.out);
+        verifyNoInteractions(failedEmailPublisher);
     }
 
     @Test
@@ -68,8 +80,6 @@ class EmailServiceTest {
         String subject = "Test Subject";
         String body = "Test Body";
 
-        when(circuitBreakerFactory.create("emailService")).thenReturn(circuitBreaker);
-
         doAnswer(invocation -> {
             java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
 
@@ -92,8 +102,6 @@ class EmailServiceTest {
         String subject = "Test Subject";
         String body = "Test Body";
 
-        when(circuitBreakerFactory.create("emailService")).thenReturn(circuitBreaker);
-
         doThrow(new RuntimeException("SMTP error")).when(mailSender).send(any(SimpleMailMessage.class));
 
         doAnswer(invocation -> {
@@ -102,16 +110,12 @@ class EmailServiceTest {
             return supplier.get();
         }).when(circuitBreaker).run(any(), any());
 
-        java.io.ByteArrayOutputStream errContent = new java.io.ByteArrayOutputStream();
-        System.setErr(new java.io.PrintStream(errContent));
-
-        assertThrows(RuntimeException.class, () ->
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
                 emailService.sendEmail(to, subject, body)
         );
 
-        assertTrue(errContent.toString().contains("Ошибка отправки email"));
-
-        System.setErr(System.err);
+        assertEquals("Ошибка отправки email", exception.getMessage());
+        assertEquals("SMTP error", exception.getCause().getMessage());
     }
 
     @Test
@@ -120,27 +124,18 @@ class EmailServiceTest {
         String subject = "Test Subject";
         String body = "Test Body";
 
-        when(circuitBreakerFactory.create("emailService")).thenReturn(circuitBreaker);
-
         doAnswer(invocation -> {
             java.util.function.Function<Throwable, Void> fallback = invocation.getArgument(1);
             return fallback.apply(new RuntimeException("Service unavailable"));
         }).when(circuitBreaker).run(any(), any());
 
-        java.io.ByteArrayOutputStream errContent = new java.io.ByteArrayOutputStream();
-        System.setErr(new java.io.PrintStream(errContent));
-
         emailService.sendEmail(to, subject, body);
 
         verify(circuitBreakerFactory).create("emailService");
         verify(circuitBreaker).run(any(), any());
         verify(mailSender, never()).send(any(SimpleMailMessage.class));
-
-        String errorOutput = errContent.toString();
-        assertTrue(errorOutput.contains("Email service unavailable"));
-        assertTrue(errorOutput.contains(to));
-
-        System.setErr(System.err);
+        verify(failedEmailPublisher).park(argThat(email ->
+                to.equals(email.getTo()) && subject.equals(email.getSubject()) && body.equals(email.getBody())));
     }
 
     @Test
@@ -149,8 +144,6 @@ class EmailServiceTest {
         String subject = "Test Subject";
         String body = "Test Body";
 
-        when(circuitBreakerFactory.create("emailService")).thenReturn(circuitBreaker);
-
         doAnswer(invocation -> {
             java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
             return supplier.get();
@@ -166,6 +159,202 @@ class EmailServiceTest {
     @Test
     void constructor_WithValidDependencies_ShouldCreateInstance() {
         assertNotNull(emailService);
-        assertDoesNotThrow(() -> new EmailService(mailSender, circuitBreakerFactory));
+        assertDoesNotThrow(() -> new EmailService(mailSender, circuitBreakerFactory, failedEmailPublisher, emailRateLimiter));
+    }
+
+    @Test
+    void sendEmails_ShouldAcquireLimitBeforeEachMessage() {
+        List<EmailRequestDto> emails = List.of(
+                new EmailRequestDto("first@example.com", "Subject 1", "Body 1"),
+                new EmailRequestDto("second@example.com", "Subject 2", "Body 2"));
+
+        doAnswer(invocation -> {
+            java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
+            return supplier.get();
+        }).when(circuitBreaker).run(any(), any());
+
+        emailService.sendEmails(emails);
+
+        verify(circuitBreakerFactory, times(1)).create("emailService");
+        verify(circuitBreaker, times(1)).run(any(), any());
+        ArgumentCaptor<SimpleMailMessage> messageCaptor = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        InOrder inOrder = inOrder(emailRateLimiter, mailSender);
+        inOrder.verify(emailRateLimiter).acquire("first@example.com");
+        inOrder.verify(mailSender).send(messageCaptor.capture());
+        inOrder.verify(emailRateLimiter).acquire("second@example.com");
+        inOrder.verify(mailSender).send(messageCaptor.capture());
+
+        List<SimpleMailMessage> messages = messageCaptor.getAllValues();
+        assertEquals("first@example.com", messages.get(0).getTo()[0]);
+        assertEquals("Subject 2", messages.get(1).getSubject());
+        assertEquals("sorohov344@gmail.com", messages.get(1).getFrom());
+    }
+
+    @Test
+    void sendEmails_ShouldSpreadSendsAccordingToRateLimit() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setGlobalPerSecond(20);
+        properties.setBurst(1);
+        EmailService limitedService = new EmailService(mailSender, circuitBreakerFactory, failedEmailPublisher,
+                new EmailRateLimiter(properties));
+
+        List<Long> sentAt = new ArrayList<>();
+        doAnswer(invocation -> sentAt.add(System.nanoTime())).when(mailSender).send(any(SimpleMailMessage.class));
+        doAnswer(invocation -> {
+            java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
+            return supplier.get();
+        }).when(circuitBreaker).run(any(), any());
+
+        limitedService.sendEmails(List.of(
+                new EmailRequestDto("first@example.com", "Subject", "Body"),
+                new EmailRequestDto("second@example.com", "Subject", "Body"),
+                new EmailRequestDto("third@example.com", "Subject", "Body"),
+                new EmailRequestDto("fourth@example.com", "Subject", "Body")));
+
+        // 20 писем в секунду без запаса: i-е письмо уходит не раньше чем через i * 50 мс после первого.
+        // Сравниваем с расписанием, а не с соседом: лишний сон одного письма сокращает паузу перед следующим
+        assertEquals(4, sentAt.size());
+        for (int i = 1; i < sentAt.size(); i++) {
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(sentAt.get(i) - sentAt.get(0));
+            assertTrue(elapsedMillis >= i * 50L - 5, "Письмо " + i + " ушло через " + elapsedMillis + " мс после первого");
+        }
+    }
+
+    @Test
+    void sendEmails_WithEmptyList_ShouldNotTouchMailSender() {
+        emailService.sendEmails(List.of());
+
+        verifyNoInteractions(circuitBreaker, mailSender);
+    }
+
+    @Test
+    void sendEmails_WhenMailSenderThrowsException_ShouldThrowRuntimeException() {
+        doThrow(new RuntimeException("SMTP error")).when(mailSender).send(any(SimpleMailMessage.class));
+        doAnswer(invocation -> {
+            java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
+            return supplier.get();
+        }).when(circuitBreaker).run(any(), any());
+
+        assertThrows(RuntimeException.class, () ->
+                emailService.sendEmails(List.of(new EmailRequestDto("test@example.com", "Subject", "Body")))
+        );
+    }
+
+    @Test
+    void sendEmails_WhenCircuitBreakerFallback_ShouldParkEveryMessage() {
+        List<EmailRequestDto> emails = List.of(
+                new EmailRequestDto("first@example.com", "Subject", "Body"),
+                new EmailRequestDto("second@example.com", "Subject", "Body"));
+
+        doAnswer(invocation -> {
+            java.util.function.Function<Throwable, Void> fallback = invocation.getArgument(1);
+            return fallback.apply(new RuntimeException("Service unavailable"));
+        }).when(circuitBreaker).run(any(), any());
+
+        emailService.sendEmails(emails);
+
+        verify(failedEmailPublisher).park(emails.get(0));
+        verify(failedEmailPublisher).park(emails.get(1));
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void sendEmails_WhenSomeMessagesFail_ShouldParkOnlyFailedOnes() {
+        List<EmailRequestDto> emails = List.of(
+                new EmailRequestDto("first@example.com", "Subject", "Body"),
+                new EmailRequestDto("second@example.com", "Subject", "Body"),
+                new EmailRequestDto("third@example.com", "Subject", "Body"));
+
+        doAnswer(invocation -> {
+            SimpleMailMessage message = invocation.getArgument(0);
+            if ("second@example.com".equals(message.getTo()[0])) {
+                throw rejected(message);
+            }
+            return null;
+        }).when(mailSender).send(any(SimpleMailMessage.class));
+        runWithFallback();
+
+        emailService.sendEmails(emails);
+
+        verify(mailSender, times(3)).send(any(SimpleMailMessage.class));
+        verify(failedEmailPublisher).park(emails.get(1));
+        verifyNoMoreInteractions(failedEmailPublisher);
+    }
+
+    @Test
+    void sendEmails_WhenMailServerIsUnavailable_ShouldStopAndParkTheRest() {
+        List<EmailRequestDto> emails = List.of(
+                new EmailRequestDto("first@example.com", "Subject", "Body"),
+                new EmailRequestDto("second@example.com", "Subject", "Body"),
+                new EmailRequestDto("third@example.com", "Subject", "Body"));
+
+        doNothing()
+                .doThrow(new MailSendException("Mail server connection failed", new RuntimeException("Connection refused")))
+                .when(mailSender).send(any(SimpleMailMessage.class));
+        runWithFallback();
+
+        emailService.sendEmails(emails);
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage.class));
+        verify(emailRateLimiter, never()).acquire("third@example.com");
+        verify(failedEmailPublisher).park(emails.get(1));
+        verify(failedEmailPublisher).park(emails.get(2));
+        verifyNoMoreInteractions(failedEmailPublisher);
+    }
+
+    @Test
+    void sendEmails_WithIdenticalMessages_ShouldParkOnlyTheOneThatFailed() {
+        EmailRequestDto email = new EmailRequestDto("same@example.com", "Subject", "Body");
+        List<EmailRequestDto> emails = List.of(email, email);
+
+        doAnswer(invocation -> {
+            throw rejected(invocation.getArgument(0));
+        }).doNothing().when(mailSender).send(any(SimpleMailMessage.class));
+        runWithFallback();
+
+        emailService.sendEmails(emails);
+
+        verify(mailSender, times(2)).send(any(SimpleMailMessage.class));
+        verify(failedEmailPublisher, times(1)).park(email);
+    }
+
+    @Test
+    void deliver_ShouldSendMessageWithoutCircuitBreaker() {
+        emailService.deliver(new EmailRequestDto("test@example.com", "Subject", "Body"));
+
+        verify(mailSender).send(argThat((SimpleMailMessage message) ->
+                "test@example.com".equals(message.getTo()[0]) &&
+                "Subject".equals(message.getSubject()) &&
+                "Body".equals(message.getText())
+        ));
+        verifyNoInteractions(circuitBreaker, failedEmailPublisher);
+        verify(emailRateLimiter).acquire("test@example.com");
+    }
+
+    @Test
+    void deliver_WhenMailSenderThrowsException_ShouldPropagate() {
+        doThrow(new org.springframework.mail.MailSendException("SMTP error"))
+                .when(mailSender).send(any(SimpleMailMessage.class));
+
+        assertThrows(org.springframework.mail.MailSendException.class, () ->
+                emailService.deliver(new EmailRequestDto("test@example.com", "Subject", "Body")));
+        verifyNoInteractions(failedEmailPublisher);
+    }
+
+    private void runWithFallback() {
+        doAnswer(invocation -> {
+            java.util.function.Supplier<Void> supplier = invocation.getArgument(0);
+            java.util.function.Function<Throwable, Void> fallback = invocation.getArgument(1);
+            try {
+                return supplier.get();
+            } catch (RuntimeException e) {
+                return fallback.apply(e);
+            }
+        }).when(circuitBreaker).run(any(), any());
+    }
+
+    // Так PooledJavaMailSender сообщает об ошибке конкретного письма: сервер доступен, письмо не принято
+    private MailSendException rejected(SimpleMailMessage message) {
+        return new MailSendException(Map.of(message, new RuntimeException("Mailbox unavailable")));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,134 @@
+package org.example.notificationservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventDeduplicatorTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EventDeduplicator deduplicator(int maxIds, String snapshotFile) {
+        return new EventDeduplicator(meterRegistry, Duration.ofMinutes(10), maxIds, snapshotFile, clock::get);
+    }
+
+    @Test
+    void markIfNew_ReturnsFalseForRepeatedId() {
+        EventDeduplicator deduplicator = deduplicator(100, "");
+        UUID eventId = UUID.randomUUID();
+
+        assertTrue(deduplicator.markIfNew(eventId));
+        assertFalse(deduplicator.markIfNew(eventId));
+        assertFalse(deduplicator.markIfNew(new UUID(eventId.getMostSignificantBits(), eventId.getLeastSignificantBits())));
+        assertTrue(deduplicator.markIfNew(UUID.randomUUID()));
+        assertEquals(2.0, meterRegistry.counter("notification.events.duplicates").count());
+    }
+
+    @Test
+    void markIfNew_WithoutId_AlwaysAccepts() {
+        EventDeduplicator deduplicator = deduplicator(100, "");
+
+        assertTrue(deduplicator.markIfNew(null));
+        assertTrue(deduplicator.markIfNew(null));
+        assertTrue(deduplicator.markIfNew(new UUID(0, 0)));
+        assertTrue(deduplicator.markIfNew(new UUID(0, 0)));
+        assertEquals(0, deduplicator.size());
+    }
+
+    @Test
+    void markIfNew_RemembersIdForAtLeastOneWindow() {
+        EventDeduplicator deduplicator = deduplicator(100, "");
+        UUID eventId = UUID.randomUUID();
+        deduplicator.markIfNew(eventId);
+
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        assertFalse(deduplicator.markIfNew(eventId));
+
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        assertTrue(deduplicator.markIfNew(eventId));
+    }
+
+    @Test
+    void markIfNew_KeepsMemoryBoundedByMaxIds() {
+        EventDeduplicator deduplicator = deduplicator(1000, "");
+        List<UUID> eventIds = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID eventId = UUID.randomUUID();
+            eventIds.add(eventId);
+            assertTrue(deduplicator.markIfNew(eventId));
+        }
+
+        assertTrue(deduplicator.size() <= 1000);
+        // Последние max-ids / 2 событий гарантированно ещё помнятся
+        for (UUID eventId : eventIds.subList(eventIds.size() - 500, eventIds.size())) {
+            assertFalse(deduplicator.markIfNew(eventId));
+        }
+    }
+
+    @Test
+    void constructor_WithInvalidSettings_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventDeduplicator(meterRegistry, Duration.ZERO, 100, ""));
+        assertThrows(IllegalArgumentException.class,
+                () -> new EventDeduplicator(meterRegistry, Duration.ofMinutes(1), 1, ""));
+    }
+
+    @Test
+    void saveSnapshot_ThenLoadSnapshot_RestoresSeenIds(@TempDir Path tempDir) {
+        String snapshotFile = tempDir.resolve("dedup.bin").toString();
+        EventDeduplicator deduplicator = deduplicator(100, snapshotFile);
+        UUID olderId = UUID.randomUUID();
+        deduplicator.markIfNew(olderId);
+        clock.addAndGet(Duration.ofMinutes(10).toMillis());
+        UUID newerId = UUID.randomUUID();
+        deduplicator.markIfNew(newerId);
+
+        deduplicator.saveSnapshot();
+        EventDeduplicator restored = deduplicator(100, snapshotFile);
+        restored.loadSnapshot();
+
+        assertEquals(2, restored.size());
+        assertFalse(restored.markIfNew(olderId));
+        assertFalse(restored.markIfNew(newerId));
+        assertFalse(Files.exists(tempDir.resolve("dedup.bin.tmp")));
+    }
+
+    @Test
+    void loadSnapshot_SkipsGenerationsOlderThanTwoWindows(@TempDir Path tempDir) {
+        String snapshotFile = tempDir.resolve("dedup.bin").toString();
+        EventDeduplicator deduplicator = deduplicator(100, snapshotFile);
+        UUID eventId = UUID.randomUUID();
+        deduplicator.markIfNew(eventId);
+        deduplicator.saveSnapshot();
+
+        clock.addAndGet(Duration.ofMinutes(20).toMillis());
+        EventDeduplicator restored = deduplicator(100, snapshotFile);
+        restored.loadSnapshot();
+
+        assertEquals(0, restored.size());
+        assertTrue(restored.markIfNew(eventId));
+    }
+
+    @Test
+    void loadSnapshot_WhenFileIsCorrupted_StartsEmpty(@TempDir Path tempDir) throws Exception {
+        Path snapshotFile = tempDir.resolve("dedup.bin");
+        Files.write(snapshotFile, new byte[]{0, 0, 0, 1, 0, 0});
+
+        EventDeduplicator deduplicator = deduplicator(100, snapshotFile.toString());
+        deduplicator.loadSnapshot();
+
+        assertEquals(0, deduplicator.size());
+        assertTrue(deduplicator.markIfNew(UUID.randomUUID()));
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.notificationservice.service;
+
+import org.example.notificationservice.dto.EmailRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.context.environment.EnvironmentChangeEvent;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotificationTemplateRegistryTest {
+
+    private MockEnvironment environment;
+    private NotificationTemplateRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        environment = new MockEnvironment()
+                .withProperty("notification-service.templates.user-created.subject", "Добро пожаловать!")
+                .withProperty("notification-service.templates.user-created.body",
+                        "Здравствуйте, {userName}! Ваш аккаунт был успешно создан.");
+        registry = new NotificationTemplateRegistry(environment);
+    }
+
+    @Test
+    void render_ShouldFillTemplateVariables() {
+        EmailRequestDto email = registry.render("user-created", "test@example.com", Map.of("userName", "Иван"));
+
+        assertEquals("test@example.com", email.getTo());
+        assertEquals("Добро пожаловать!", email.getSubject());
+        assertEquals("Здравствуйте, Иван! Ваш аккаунт был успешно создан.", email.getBody());
+    }
+
+    @Test
+    void render_WithUnknownTemplate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () ->
+                registry.render("unknown", "test@example.com", Map.of()));
+    }
+
+    @Test
+    void constructor_WithTemplateWithoutSubject_ShouldFailWithConfigError() {
+        MockEnvironment invalid = new MockEnvironment()
+                .withProperty("notification-service.templates.user-deleted.body", "Ваш аккаунт был удалён.");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new NotificationTemplateRegistry(invalid));
+
+        assertEquals("В шаблоне уведомления user-deleted не задан subject "
+                + "(notification-service.templates.user-deleted.subject)", exception.getMessage());
+    }
+
+    @Test
+    void onEnvironmentChange_ShouldReloadTemplates() {
+        environment.setProperty("notification-service.templates.user-created.subject", "Привет!");
+
+        registry.onEnvironmentChange(new EnvironmentChangeEvent(
+                Set.of("notification-service.templates.user-created.subject")));
+
+        assertEquals("Привет!", registry.render("user-created", "test@example.com",
+                Map.of("userName", "Иван")).getSubject());
+    }
+
+    @Test
+    void onEnvironmentChange_WithInvalidTemplate_ShouldKeepPreviousTemplates() {
+        environment.setProperty("notification-service.templates.user-created.subject", "Привет!");
+        environment.setProperty("notification-service.templates.user-deleted.subject", "Аккаунт удален");
+
+        registry.onEnvironmentChange(new EnvironmentChangeEvent(
+                Set.of("notification-service.templates.user-deleted.subject")));
+
+        assertEquals("Добро пожаловать!", registry.render("user-created", "test@example.com",
+                Map.of("userName", "Иван")).getSubject());
+        assertThrows(IllegalArgumentException.class, () ->
+                registry.render("user-deleted", "test@example.com", Map.of()));
+    }
+
+    @Test
+    void onEnvironmentChange_ForUnrelatedKeys_ShouldKeepCompiledTemplates() {
+        environment.setProperty("notification-service.templates.user-created.subject", "Привет!");
+
+        registry.onEnvironmentChange(new EnvironmentChangeEvent(Set.of("spring.mail.host")));
+
+        assertEquals("Добро пожаловать!", registry.render("user-created", "test@example.com",
+                Map.of("userName", "Иван")).getSubject());
+    }
+}
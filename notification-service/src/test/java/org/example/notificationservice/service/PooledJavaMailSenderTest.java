@@ -0,0 +1,130 @@
+package org.example.notificationservice.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new PooledJavaMailSender(2) {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                connections.incrementAndGet();
+                return super.connectTransport();
+            }
+        };
+        configure(mailSender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailSender.destroy();
+    }
+
+    @Test
+    void send_ShouldReuseConnectionAcrossCalls() {
+        for (int i = 0; i < 10; i++) {
+            mailSender.send(message(i));
+        }
+
+        assertEquals(10, greenMail.getReceivedMessages().length);
+        assertEquals(1, connections.get());
+        assertEquals(1, mailSender.getIdleTransportCount());
+    }
+
+    @Test
+    void send_WithManyMessages_ShouldUseSingleConnection() {
+        SimpleMailMessage[] messages = new SimpleMailMessage[25];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = message(i);
+        }
+
+        mailSender.send(messages);
+
+        assertEquals(25, greenMail.getReceivedMessages().length);
+        assertEquals(1, connections.get());
+    }
+
+    @Test
+    void send_WhenPooledConnectionWasClosed_ShouldReconnect() {
+        mailSender.send(message(0));
+        mailSender.destroy();
+
+        mailSender.send(message(1));
+
+        assertEquals(2, greenMail.getReceivedMessages().length);
+        assertEquals(2, connections.get());
+    }
+
+    @Test
+    void send_WhenServerUnavailable_ShouldThrowMailSendException() {
+        PooledJavaMailSender unavailableSender = new PooledJavaMailSender(2);
+        unavailableSender.setHost("localhost");
+        unavailableSender.setPort(1);
+
+        MailSendException exception = assertThrows(MailSendException.class, () -> unavailableSender.send(message(0)));
+        assertTrue(exception.getFailedMessages().isEmpty());
+        assertEquals(0, unavailableSender.getIdleTransportCount());
+    }
+
+    // Запуск: mvn test -pl notification-service -Dbenchmarks=true -Dtest=PooledJavaMailSenderTest
+    @Test
+    @EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+    void pooledSender_ShouldSendMoreMessagesPerSecondThanConnectionPerMessage() {
+        int messages = 500;
+        JavaMailSenderImpl plainSender = new JavaMailSenderImpl();
+        configure(plainSender);
+
+        double plainRate = measure(plainSender, messages);
+        double pooledRate = measure(mailSender, messages);
+
+        System.out.printf("connection per message: %.0f messages/s, pooled connection: %.0f messages/s%n",
+                plainRate, pooledRate);
+
+        assertTrue(pooledRate > plainRate);
+    }
+
+    private double measure(JavaMailSenderImpl sender, int messages) {
+        long start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            sender.send(message(i));
+        }
+        return messages / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+
+    private void configure(JavaMailSenderImpl sender) {
+        sender.setHost("localhost");
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    private SimpleMailMessage message(int index) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo("user" + index + "@example.com");
+        message.setFrom("sorohov344@gmail.com");
+        message.setSubject("Добро пожаловать!");
+        message.setText("Здравствуйте, User " + index + "! Ваш аккаунт был успешно создан.");
+        return message;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.notificationservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void reserve_WithinBurst_ShouldNotWait() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+        assertEquals(0, bucket.reserve());
+    }
+
+    @Test
+    void reserve_BeyondBurst_ShouldReturnGrowingDelayInsteadOfRejecting() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+
+        assertEquals(0, bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.reserve());
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), bucket.reserve());
+    }
+
+    @Test
+    void reserve_ShouldRefillOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+        bucket.reserve();
+        bucket.reserve();
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1.0, bucket.getAvailableTokens(), 1e-9);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(2.0, bucket.getAvailableTokens(), 1e-9);
+    }
+
+    @Test
+    void constructor_WithInvalidRate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(1, 0));
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.config;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// При user-service.circuit-breaker.direct=false используется стандартная фабрика Spring Cloud с TimeLimiter
+@Configuration
+public class CircuitBreakerFactoryConfig {
+
+    public static final String USER_SERVICE = "userService";
+    public static final String USER_EVENTS_KAFKA = "userEventsKafka";
+
+    @Bean
+    @ConditionalOnProperty(name = "user-service.circuit-breaker.direct", havingValue = "true", matchIfMissing = true)
+    public CircuitBreakerFactory<?, ?> circuitBreakerFactory(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new DirectCircuitBreakerFactory(circuitBreakerRegistry);
+    }
+}
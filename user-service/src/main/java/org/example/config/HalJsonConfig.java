@@ -0,0 +1,24 @@
+package org.example.config;
+
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.LinkRelationProvider;
+
+@Configuration
+public class HalJsonConfig {
+
+    // HAL-конвертер Spring HATEOAS срабатывает только для корневого RepresentationModel, а списки
+    // (пакетное создание, выборка по ids) пишет обычный Jackson. Без HAL-модуля вложенные пользователи
+    // получали бы "links": [...] вместо "_links", а клиенты без ссылок — пустой "links": []
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer halJsonCustomizer(LinkRelationProvider linkRelationProvider) {
+        return builder -> builder
+                .modulesToInstall(modules -> modules.add(new Jackson2HalModule()))
+                .handlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                        linkRelationProvider, CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY));
+    }
+}
@@ -1,32 +1,114 @@
 package org.example.config;
 
 import org.example.dto.UserEventDto;
+import org.example.kafka.UserEventBinarySerializer;
+import org.example.kafka.UserEventDeserializer;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.CommonLoggingErrorHandler;
 import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@EnableKafka
 public class KafkaConfig {
 
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers = "localhost:9092";
+
+    @Value("${spring.kafka.producer.acks:all}")
+    private String acks = "all";
+
+    @Value("${spring.kafka.producer.properties.enable.idempotence:true}")
+    private boolean idempotence = true;
+
+    @Value("${spring.kafka.producer.properties.linger.ms:0}")
+    private int lingerMs = 0;
+
+    @Value("${spring.kafka.producer.batch-size:16384}")
+    private int batchSize = 16384;
+
+    @Value("${spring.kafka.producer.compression-type:none}")
+    private String compressionType = "none";
+
+    // json или binary; консьюмеры обоих сервисов читают оба формата
+    @Value("${user-service.kafka.user-events.format:json}")
+    private String userEventsFormat = "json";
+
+    @Value("${user-service.kafka.user-events.partitions:3}")
+    private int userEventsPartitions = 3;
+
+    @Bean
+    public NewTopic userEventsTopic() {
+        return TopicBuilder.name("user-events")
+                .partitions(userEventsPartitions)
+                .build();
+    }
+
     @Bean
     public ProducerFactory<String, UserEventDto> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
-        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092");
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, userEventSerializer());
+        configProps.put(ProducerConfig.ACKS_CONFIG, acks);
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
         return new DefaultKafkaProducerFactory<>(configProps);
     }
 
+    private Class<?> userEventSerializer() {
+        return switch (userEventsFormat) {
+            case "json" -> JsonSerializer.class;
+            case "binary" -> UserEventBinarySerializer.class;
+            default -> throw new IllegalArgumentException("Неизвестный формат user-events: " + userEventsFormat);
+        };
+    }
+
     @Bean
     public KafkaTemplate<String, UserEventDto> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
+
+    @Bean
+    public ConsumerFactory<String, UserEventDto> consumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, UserEventDeserializer.class);
+
+        // Инвалидации нужны только события, пришедшие после старта реплики
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, UserEventDto> kafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventDto> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+
+        factory.setCommonErrorHandler(new CommonLoggingErrorHandler());
+
+        return factory;
+    }
 }
@@ -1,15 +1,27 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.dto.UserBatchItemResultDto;
+import org.example.dto.UserLookupResultDto;
+import org.example.dto.UserPageDto;
+import org.example.dto.UserPatchDto;
 import org.example.dto.UserRequestDto;
 import org.example.dto.UserResponseDto;
 import org.example.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import io.swagger.v3.oas.annotations.Operation;
 
-import java.util.Map;
+import java.util.List;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -18,24 +30,46 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/api/users")
 public class UserController {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final String PLAIN_JSON_ETAG_SUFFIX = "-json";
+
     private final UserService userService;
+    private final UserLinks userLinks;
+    private final ObjectWriter streamWriter;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, ObjectMapper objectMapper, UserLinks userLinks) {
         this.userService = userService;
+        this.userLinks = userLinks;
+        this.streamWriter = objectMapper.copy()
+                .addMixIn(UserResponseDto.class, WithoutLinks.class)
+                .writerFor(UserResponseDto.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @Operation(summary = "Получить пользователя по ID", description = "Позволяет получить пользователя по ID")
+    // ETag из версии: на If-None-Match с той же версией Spring сам отвечает 304 без тела
     @GetMapping("/{id}")
-    public UserResponseDto getUser(@PathVariable int id) {
+    public ResponseEntity<UserResponseDto> getUser(@PathVariable int id) {
         UserResponseDto user = userService.findUserById(id);
 
-        user.add(linkTo(methodOn(UserController.class).getUser(id)).withSelfRel());
-        user.add(linkTo(methodOn(UserController.class).updateUser(id, null)).withRel("update"));
-        user.add(linkTo(methodOn(UserController.class).deleteUser(id)).withRel("delete"));
-        user.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("collection"));
-
-        return user;
+        // Ответ-заглушку нельзя кэшировать: иначе клиент будет присылать её ETag в If-None-Match и If-Match
+        if (user.isUnavailable()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(user);
+        }
+
+        boolean withLinks = userLinks.isRequested();
+        if (withLinks) {
+            UserLinks.Templates links = userLinks.current();
+            user.add(links.self(id));
+            user.add(links.user(id, UserLinks.UPDATE));
+            user.add(links.user(id, UserLinks.DELETE));
+            user.add(links.collection());
+        }
+
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).eTag(eTag(user, withLinks)).body(user);
     }
 
 
@@ -44,22 +78,65 @@ public class UserController {
     public ResponseEntity<UserResponseDto> createUser(@RequestBody UserRequestDto userRequestDto) {
         UserResponseDto createdUser = userService.createUser(userRequestDto);
 
-        createdUser.add(linkTo(methodOn(UserController.class).getUser(createdUser.getId())).withSelfRel());
-        createdUser.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("collection"));
+        boolean withLinks = userLinks.isRequested();
+        if (withLinks) {
+            UserLinks.Templates links = userLinks.current();
+            createdUser.add(links.self(createdUser.getId()));
+            createdUser.add(links.collection());
+        }
 
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+        return ResponseEntity.status(HttpStatus.CREATED).varyBy(HttpHeaders.ACCEPT)
+                .eTag(eTag(createdUser, withLinks)).body(createdUser);
+    }
+
+    @Operation(summary = "Массово создать пользователей",
+            description = "Создаёт до 1000 пользователей за один запрос и возвращает результат по каждому из них")
+    @PostMapping("/batch")
+    public ResponseEntity<List<UserBatchItemResultDto>> createUsers(@RequestBody List<UserRequestDto> userRequestDtos) {
+        List<UserBatchItemResultDto> results = userService.createUsers(userRequestDtos);
+
+        if (userLinks.isRequested()) {
+            UserLinks.Templates links = userLinks.current();
+            for (UserBatchItemResultDto result : results) {
+                if (result.isSuccess()) {
+                    UserResponseDto createdUser = result.getUser();
+                    createdUser.add(links.self(createdUser.getId()));
+                }
+            }
+        }
+
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(results);
     }
 
 
     @Operation(summary = "Обновить пользователя", description = "Позволяет обновить пользователя")
     @PutMapping("/{id}")
-    public UserResponseDto updateUser(@PathVariable int id, @RequestBody UserRequestDto userRequestDto) {
-        UserResponseDto updatedUser = userService.updateUser(id, userRequestDto);
+    public ResponseEntity<UserResponseDto> updateUser(@PathVariable int id, @RequestBody UserRequestDto userRequestDto,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserResponseDto updatedUser = userService.updateUser(id, userRequestDto, expectedVersion(ifMatch));
+
+        return updated(id, updatedUser);
+    }
+
+    @Operation(summary = "Частично обновить пользователя",
+            description = "Меняет только переданные поля. С заголовком If-Match обновление выполняется, только если версия не изменилась")
+    @PatchMapping("/{id}")
+    public ResponseEntity<UserResponseDto> patchUser(@PathVariable int id, @RequestBody UserPatchDto userPatchDto,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        UserResponseDto updatedUser = userService.patchUser(id, userPatchDto, expectedVersion(ifMatch));
+
+        return updated(id, updatedUser);
+    }
 
-        updatedUser.add(linkTo(methodOn(UserController.class).getUser(id)).withSelfRel());
-        updatedUser.add(linkTo(methodOn(UserController.class).getAllUsers()).withRel("collection"));
+    private ResponseEntity<UserResponseDto> updated(int id, UserResponseDto updatedUser) {
+        boolean withLinks = userLinks.isRequested();
+        if (withLinks) {
+            UserLinks.Templates links = userLinks.current();
+            updatedUser.add(links.self(id));
+            updatedUser.add(links.collection());
+        }
 
-        return updatedUser;
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).eTag(eTag(updatedUser, withLinks)).body(updatedUser);
     }
 
     @Operation(summary = "Удалить пользователя", description = "Позволяет удалить пользователя")
@@ -70,14 +147,98 @@ public class UserController {
         return ResponseEntity.noContent().build();
     }
 
-    @Operation(summary = "Получить информацию о API", description = "Получение информации об API")
+    @Operation(summary = "Получить список пользователей",
+            description = "Возвращает пользователей по возрастанию id. Для следующей страницы передайте nextCursor в afterId")
     @GetMapping
-    public Map<String, String> getAllUsers() {
+    public ResponseEntity<UserPageDto> getAllUsers(@RequestParam(required = false) Integer afterId,
+                                                   @RequestParam(required = false) Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        UserPageDto page = userService.findUsersAfter(afterId == null ? 0 : afterId, pageSize);
+
+        if (!userLinks.isRequested()) {
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(page);
+        }
+
+        UserLinks.Templates links = userLinks.current();
+        for (UserResponseDto user : page.getContent()) {
+            user.add(links.self(user.getId()));
+        }
+
+        // Ссылки страницы зависят от параметров запроса и строятся по одной на ответ, поэтому через methodOn
+        page.add(linkTo(methodOn(UserController.class).getAllUsers(afterId, limit)).withSelfRel());
+        if (page.getNextCursor() != null) {
+            page.add(linkTo(methodOn(UserController.class).getAllUsers(page.getNextCursor(), limit)).withRel("next"));
+        }
+
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(page);
+    }
+
+    @Operation(summary = "Получить пользователей по списку id",
+            description = "Возвращает до 1000 пользователей в порядке запроса, ненайденные id отмечаются found = false")
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<UserLookupResultDto>> getUsersByIds(@RequestParam List<Integer> ids) {
+        List<UserLookupResultDto> results = userService.findUsersByIds(ids);
+
+        if (userLinks.isRequested()) {
+            UserLinks.Templates links = userLinks.current();
+            for (UserLookupResultDto result : results) {
+                if (result.isFound()) {
+                    result.getUser().add(links.self(result.getId()));
+                }
+            }
+        }
+
+        return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(results);
+    }
+
+    @Operation(summary = "Выгрузить всех пользователей",
+            description = "Потоково отдаёт пользователей в формате NDJSON, читая БД порциями по id")
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsers(@RequestParam(required = false) Integer afterId) {
+        StreamingResponseBody body = outputStream -> {
+            Integer cursor = afterId == null ? 0 : afterId;
+            while (cursor != null) {
+                UserPageDto page = userService.findUsersAfter(cursor, STREAM_CHUNK_SIZE);
+                for (UserResponseDto user : page.getContent()) {
+                    streamWriter.writeValue(outputStream, user);
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+                cursor = page.getNextCursor();
+            }
+        };
+
+        return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body);
+    }
+
+    // Представления со ссылками и без них различаются телом, поэтому у них разные ETag:
+    // "3" для HAL и "3-json" для обычного JSON
+    private static String eTag(UserResponseDto user, boolean withLinks) {
+        return "\"" + user.getVersion() + (withLinks ? "" : PLAIN_JSON_ETAG_SUFFIX) + "\"";
+    }
+
+    // Принимается один сильный ETag пользователя (любого представления) или "*" (любая версия)
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String version = tag.substring(1, tag.length() - 1);
+            if (version.endsWith(PLAIN_JSON_ETAG_SUFFIX)) {
+                version = version.substring(0, version.length() - PLAIN_JSON_ETAG_SUFFIX.length());
+            }
+            try {
+                return Long.parseLong(version);
+            } catch (NumberFormatException ignored) {
+                // ниже общая ошибка формата
+            }
+        }
+        throw new IllegalArgumentException("If-Match должен содержать ETag пользователя, например \"3\"");
+    }
 
-        return Map.of(
-                "info", "User Management API",
-                "endpoints", "GET/POST /api/users, GET/PUT/DELETE /api/users/{id}",
-                "documentation", "/swagger-ui/index.html"
-        );
+    @JsonIgnoreProperties("_links")
+    private abstract static class WithoutLinks {
     }
 }
\ No newline at end of file
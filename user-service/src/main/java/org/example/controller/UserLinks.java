@@ -0,0 +1,98 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Ссылки пользователей собираются из шаблонов вместо linkTo(methodOn(...)): шаблоны готовятся один раз
+// на базовый URI, а на каждую ссылку остаётся только подстановка id, без CGLIB-прокси и разбора маппингов
+@Component
+public class UserLinks {
+
+    public static final LinkRelation UPDATE = LinkRelation.of("update");
+    public static final LinkRelation DELETE = LinkRelation.of("delete");
+    public static final LinkRelation COLLECTION = LinkRelation.of("collection");
+
+    static final String USERS_PATH = "/api/users";
+
+    // Базовый URI берётся из заголовка Host, поэтому кэш ограничен: чужие хосты не должны раздувать память
+    private static final int MAX_CACHED_BASE_URIS = 64;
+
+    private final Map<String, Templates> templatesByBaseUri = new ConcurrentHashMap<>();
+
+    // Ссылки не нужны клиенту, который явно просит application/json и не принимает HAL.
+    // Маска вида application/*+json включает application/hal+json и считается согласием на HAL
+    public boolean isRequested() {
+        String accept = currentRequest().getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return true;
+        }
+
+        boolean plainJson = false;
+        for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+            if (mediaType.equalsTypeAndSubtype(MediaTypes.HAL_JSON) || acceptsHalBySuffix(mediaType)) {
+                return true;
+            }
+            if (mediaType.equalsTypeAndSubtype(MediaType.APPLICATION_JSON)) {
+                plainJson = true;
+            }
+        }
+        return !plainJson;
+    }
+
+    private static boolean acceptsHalBySuffix(MediaType mediaType) {
+        return mediaType.isWildcardSubtype() && "json".equals(mediaType.getSubtypeSuffix())
+                && mediaType.includes(MediaTypes.HAL_JSON);
+    }
+
+    public Templates current() {
+        String baseUri = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+
+        Templates templates = templatesByBaseUri.get(baseUri);
+        if (templates == null) {
+            templates = new Templates(baseUri);
+            if (templatesByBaseUri.size() < MAX_CACHED_BASE_URIS) {
+                templatesByBaseUri.putIfAbsent(baseUri, templates);
+            }
+        }
+        return templates;
+    }
+
+    private static HttpServletRequest currentRequest() {
+        return ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+    }
+
+    public static final class Templates {
+
+        private final String userHrefPrefix;
+        private final Link collection;
+
+        private Templates(String baseUri) {
+            this.userHrefPrefix = baseUri + USERS_PATH + "/";
+            this.collection = Link.of(baseUri + USERS_PATH + "{?afterId,limit}", COLLECTION);
+        }
+
+        public Link self(int id) {
+            return user(id, IanaLinkRelations.SELF);
+        }
+
+        public Link user(int id, LinkRelation relation) {
+            return Link.of(userHrefPrefix + id, relation);
+        }
+
+        public Link collection() {
+            return collection;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class UserBatchItemResultDto {
+
+    @Schema(description = "Позиция пользователя в исходном запросе")
+    private int index;
+
+    @Schema(description = "Признак успешного создания пользователя")
+    private boolean success;
+
+    @Schema(description = "Созданный пользователь")
+    private UserResponseDto user;
+
+    @Schema(description = "Причина ошибки, если пользователь не создан")
+    private String error;
+
+    public UserBatchItemResultDto() {}
+
+    public UserBatchItemResultDto(int index, boolean success, UserResponseDto user, String error) {
+        this.index = index;
+        this.success = success;
+        this.user = user;
+        this.error = error;
+    }
+
+    public static UserBatchItemResultDto created(int index, UserResponseDto user) {
+        return new UserBatchItemResultDto(index, true, user, null);
+    }
+
+    public static UserBatchItemResultDto failed(int index, String error) {
+        return new UserBatchItemResultDto(index, false, null, error);
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    public void setUser(UserResponseDto user) {
+        this.user = user;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
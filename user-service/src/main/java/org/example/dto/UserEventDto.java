@@ -1,9 +1,14 @@
 package org.example.dto;
 
+import java.util.UUID;
+
 public class UserEventDto {
     private String operation;
+    private Integer userId;
     private String email;
     private String userName;
+    private UUID eventId;
+    private Long timestamp;
 
     public UserEventDto() {}
 
@@ -13,6 +18,20 @@ public class UserEventDto {
         this.userName = userName;
     }
 
+    public UserEventDto(String operation, Integer userId, String email, String userName) {
+        this.operation = operation;
+        this.userId = userId;
+        this.email = email;
+        this.userName = userName;
+    }
+
+    public UserEventDto(String operation, Integer userId, String email, String userName, UUID eventId,
+                        Long timestamp) {
+        this(operation, userId, email, userName);
+        this.eventId = eventId;
+        this.timestamp = timestamp;
+    }
+
     public String getOperation() {
         return operation;
     }
@@ -21,6 +40,14 @@ public class UserEventDto {
         this.operation = operation;
     }
 
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
     public String getEmail() {
         return email;
     }
@@ -36,4 +63,20 @@ public class UserEventDto {
     public void setUserName(String userName) {
         this.userName = userName;
     }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(UUID eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Long timestamp) {
+        this.timestamp = timestamp;
+    }
 }
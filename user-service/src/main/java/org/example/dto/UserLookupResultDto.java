@@ -0,0 +1,55 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+public class UserLookupResultDto {
+
+    @Schema(description = "Запрошенный id пользователя")
+    private int id;
+
+    @Schema(description = "Признак того, что пользователь найден")
+    private boolean found;
+
+    @Schema(description = "Найденный пользователь")
+    private UserResponseDto user;
+
+    public UserLookupResultDto() {}
+
+    public UserLookupResultDto(int id, boolean found, UserResponseDto user) {
+        this.id = id;
+        this.found = found;
+        this.user = user;
+    }
+
+    public static UserLookupResultDto found(int id, UserResponseDto user) {
+        return new UserLookupResultDto(id, true, user);
+    }
+
+    public static UserLookupResultDto missing(int id) {
+        return new UserLookupResultDto(id, false, null);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public UserResponseDto getUser() {
+        return user;
+    }
+
+    public void setUser(UserResponseDto user) {
+        this.user = user;
+    }
+}
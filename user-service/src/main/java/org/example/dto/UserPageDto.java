@@ -0,0 +1,38 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.hateoas.RepresentationModel;
+
+import java.util.List;
+
+public class UserPageDto extends RepresentationModel<UserPageDto> {
+
+    @Schema(description = "Пользователи текущей страницы, упорядоченные по id")
+    private List<UserResponseDto> content;
+
+    @Schema(description = "Курсор следующей страницы (id последнего пользователя) или null, если страниц больше нет")
+    private Integer nextCursor;
+
+    public UserPageDto() {}
+
+    public UserPageDto(List<UserResponseDto> content, Integer nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserResponseDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<UserResponseDto> content) {
+        this.content = content;
+    }
+
+    public Integer getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Integer nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Email;
+
+// Частичное обновление: null означает, что поле не меняется
+public class UserPatchDto {
+
+    @Schema(description = "Новое имя пользователя")
+    private String name;
+
+    @Email
+    @Schema(description = "Новый email пользователя")
+    private String email;
+
+    @Schema(description = "Новый возраст пользователя")
+    private Integer age;
+
+    public UserPatchDto() {}
+
+    public UserPatchDto(String name, String email, Integer age) {
+        this.name = name;
+        this.email = email;
+        this.age = age;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+}
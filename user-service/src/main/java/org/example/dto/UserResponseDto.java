@@ -1,5 +1,6 @@
 package org.example.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -30,6 +31,14 @@ public class UserResponseDto extends RepresentationModel<UserResponseDto> {
     @Schema(description = "Время создания пользователя")
     private LocalDateTime createdAt;
 
+    // Передаётся в заголовке ETag, а не в теле ответа
+    @JsonIgnore
+    private long version;
+
+    // Заглушка от circuit breaker: у неё нет настоящей версии, поэтому ответ не должен получать ETag
+    @JsonIgnore
+    private boolean unavailable;
+
     public UserResponseDto() {}
 
     public UserResponseDto(int id, String name, String email, int age, LocalDateTime createdAt) {
@@ -40,6 +49,11 @@ public class UserResponseDto extends RepresentationModel<UserResponseDto> {
         this.createdAt = createdAt;
     }
 
+    public UserResponseDto(int id, String name, String email, int age, LocalDateTime createdAt, long version) {
+        this(id, name, email, age, createdAt);
+        this.version = version;
+    }
+
     public int getId() {
         return id;
     }
@@ -59,6 +73,14 @@ public class UserResponseDto extends RepresentationModel<UserResponseDto> {
         return createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isUnavailable() {
+        return unavailable;
+    }
+
     public void setId(int id) {
         this.id = id;
     }
@@ -78,4 +100,12 @@ public class UserResponseDto extends RepresentationModel<UserResponseDto> {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public void setUnavailable(boolean unavailable) {
+        this.unavailable = unavailable;
+    }
 }
@@ -0,0 +1,8 @@
+package org.example.dto;
+
+import java.time.LocalDateTime;
+
+// Неизменяемая проекция пользователя для чтения: выбирается JPQL-конструктором, минуя persistence context,
+// и хранится в кэше users вместо сущности
+public record UserView(int id, String name, String email, int age, LocalDateTime createdAt, long version) {
+}
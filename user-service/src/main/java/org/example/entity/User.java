@@ -5,17 +5,27 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = User.EMAIL_UNIQUE_INDEX, columnList = "email", unique = true),
+        @Index(name = User.CREATED_AT_INDEX, columnList = "created_at")
+})
 @Schema(description = "Основная сущность пользователя, хранимая в БД")
+// UPDATE содержит только изменённые столбцы и версию, а не все поля строки
+@DynamicUpdate
 public class User {
 
+    public static final String EMAIL_UNIQUE_INDEX = "ux_users_email";
+    public static final String CREATED_AT_INDEX = "idx_users_created_at";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     @Schema(description = "Уникальный идентификатор")
     private int id;
     @NotBlank(message = "Имя не может быть пустым")
@@ -36,6 +46,12 @@ public class User {
     @Schema(description = "Дата создания пользователя в БД")
     private LocalDateTime createdAt;
 
+    // Оптимистическая блокировка: UPDATE выполняется с условием по версии, параллельная запись не затирается молча
+    @Version
+    @Column(nullable = false)
+    @Schema(description = "Версия записи, отдаётся клиенту как ETag")
+    private long version;
+
     public User() {
     }
 
@@ -86,6 +102,14 @@ public class User {
         this.createdAt = createdAt;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Пользователь: " + '\n' +
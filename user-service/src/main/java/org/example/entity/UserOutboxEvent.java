@@ -0,0 +1,74 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "user_outbox")
+public class UserOutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_outbox_id_seq")
+    @SequenceGenerator(name = "user_outbox_id_seq", sequenceName = "user_outbox_id_seq", allocationSize = 50)
+    private long id;
+
+    // Не меняется при повторной отправке из outbox, по нему консьюмеры отбрасывают дубли
+    @Column(name = "event_id", nullable = false, unique = true)
+    private UUID eventId;
+
+    @Column(nullable = false)
+    private String operation;
+
+    @Column(name = "user_id")
+    private Integer userId;
+
+    private String email;
+
+    @Column(name = "user_name")
+    private String userName;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public UserOutboxEvent() {
+    }
+
+    public UserOutboxEvent(String operation, Integer userId, String email, String userName, LocalDateTime createdAt) {
+        this.eventId = UUID.randomUUID();
+        this.operation = operation;
+        this.userId = userId;
+        this.email = email;
+        this.userName = userName;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public UUID getEventId() {
+        return eventId;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
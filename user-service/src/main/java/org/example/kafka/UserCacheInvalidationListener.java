@@ -0,0 +1,36 @@
+package org.example.kafka;
+
+import org.example.config.CacheConfig;
+import org.example.dto.UserEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UserCacheInvalidationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+    private final Cache userCache;
+
+    public UserCacheInvalidationListener(CacheManager cacheManager) {
+        this.userCache = cacheManager.getCache(CacheConfig.USERS_CACHE);
+    }
+
+    // У каждой реплики своя группа, чтобы событие получили все экземпляры сервиса
+    @KafkaListener(topics = "user-events",
+            groupId = "#{'user-service-cache-' + T(java.util.UUID).randomUUID()}",
+            autoStartup = "${user-service.cache.invalidation.enabled:true}")
+    public void onUserEvent(UserEventDto userEvent) {
+        if (userEvent.getUserId() == null) {
+            return;
+        }
+
+        if ("UPDATE".equals(userEvent.getOperation()) || "DELETE".equals(userEvent.getOperation())) {
+            logger.debug("Evicting user {} from cache after {} event", userEvent.getUserId(), userEvent.getOperation());
+            userCache.evict(userEvent.getUserId());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.kafka;
+
+import org.apache.kafka.common.serialization.Serializer;
+import org.example.dto.UserEventDto;
+
+public class UserEventBinarySerializer implements Serializer<UserEventDto> {
+
+    @Override
+    public byte[] serialize(String topic, UserEventDto data) {
+        return data == null ? null : UserEventBinaryCodec.encode(data);
+    }
+}
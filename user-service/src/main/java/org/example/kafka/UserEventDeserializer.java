@@ -0,0 +1,26 @@
+package org.example.kafka;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.example.dto.UserEventDto;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+// Читает оба формата user-events, поэтому продюсеры можно переключать на бинарный формат без остановки консьюмеров
+public class UserEventDeserializer implements Deserializer<UserEventDto> {
+
+    private final JsonDeserializer<UserEventDto> jsonDeserializer = new JsonDeserializer<>(UserEventDto.class, false);
+
+    @Override
+    public UserEventDto deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        return UserEventBinaryCodec.isJson(data)
+                ? jsonDeserializer.deserialize(topic, data)
+                : UserEventBinaryCodec.decode(data);
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.kafka;
+
+import org.example.entity.User;
+import org.example.entity.UserOutboxEvent;
+import org.example.repository.UserOutboxRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class UserEventOutbox {
+
+    private final UserOutboxRepository outboxRepository;
+
+    public UserEventOutbox(UserOutboxRepository outboxRepository) {
+        this.outboxRepository = outboxRepository;
+    }
+
+    public void userCreated(User user) {
+        outboxRepository.save(toOutboxEvent("CREATE", user));
+    }
+
+    public void usersCreated(List<User> users) {
+        List<UserOutboxEvent> events = new ArrayList<>(users.size());
+        for (User user : users) {
+            events.add(toOutboxEvent("CREATE", user));
+        }
+        outboxRepository.saveAll(events);
+    }
+
+    public void userUpdated(User user) {
+        outboxRepository.save(toOutboxEvent("UPDATE", user));
+    }
+
+    public void userDeleted(User user) {
+        outboxRepository.save(toOutboxEvent("DELETE", user));
+    }
+
+    private UserOutboxEvent toOutboxEvent(String operation, User user) {
+        return new UserOutboxEvent(operation, user.getId(), user.getEmail(), user.getName(), LocalDateTime.now());
+    }
+}
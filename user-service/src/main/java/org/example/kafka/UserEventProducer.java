@@ -1,26 +1,84 @@
 package org.example.kafka;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.example.dto.UserEventDto;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
 @Component
 public class UserEventProducer {
     private final KafkaTemplate<String, UserEventDto> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore inFlightPermits;
+    private final long acquireTimeoutMs;
     private static final String TOPIC = "user-events";
 
-    public UserEventProducer(KafkaTemplate<String, UserEventDto> kafkaTemplate) {
+    public UserEventProducer(KafkaTemplate<String, UserEventDto> kafkaTemplate, MeterRegistry meterRegistry,
+                             @Value("${user-service.kafka.max-in-flight:1000}") int maxInFlight,
+                             @Value("${user-service.kafka.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
         this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        meterRegistry.gauge("user.events.in-flight", inFlightPermits, permits -> maxInFlight - permits.availablePermits());
     }
 
-    public void sendUserCreatedEvent(String email, String userName) {
-        UserEventDto event = new UserEventDto("CREATE", email, userName);
-        kafkaTemplate.send(TOPIC, event);
+    // Ключ по email сохраняет порядок событий пользователя в его партиции. Число неподтверждённых
+    // отправок ограничено: при медленном брокере поток ждёт места, а не копит события в буфере продюсера
+    public CompletableFuture<SendResult<String, UserEventDto>> publish(UserEventDto event) {
+        acquirePermit();
+        long startTime = System.nanoTime();
+
+        CompletableFuture<SendResult<String, UserEventDto>> future;
+        try {
+            future = kafkaTemplate.send(TOPIC, event.getEmail(), event);
+        } catch (RuntimeException e) {
+            inFlightPermits.release();
+            recordSend(event, "failure", startTime);
+            throw e;
+        }
+
+        return future.whenComplete((result, ex) -> {
+            inFlightPermits.release();
+            recordSend(event, ex == null ? "success" : "failure", startTime);
+        });
     }
 
+    public void sendEvents(List<UserEventDto> events) {
+        List<CompletableFuture<SendResult<String, UserEventDto>>> futures = new ArrayList<>(events.size());
+        for (UserEventDto event : events) {
+            futures.add(publish(event));
+        }
+        kafkaTemplate.flush();
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!inFlightPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Превышено число неподтверждённых событий Kafka");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Отправка события Kafka прервана", e);
+        }
+    }
 
-    public void sendUserDeletedEvent(String email, String userName) {
-        UserEventDto event = new UserEventDto("DELETE", email, userName);
-        kafkaTemplate.send(TOPIC, event);
+    private void recordSend(UserEventDto event, String outcome, long startTime) {
+        Timer.builder("user.events.publish")
+                .tag("operation", event.getOperation() != null ? event.getOperation() : "unknown")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
     }
 }
@@ -0,0 +1,105 @@
+package org.example.kafka;
+
+import org.example.config.CircuitBreakerFactoryConfig;
+import org.example.dto.UserEventDto;
+import jakarta.annotation.PreDestroy;
+import org.example.entity.UserOutboxEvent;
+import org.example.entity.UserOutboxRelayLease;
+import org.example.repository.UserOutboxRelayLeaseRepository;
+import org.example.repository.UserOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "user-service.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class UserOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserOutboxRelay.class);
+    private final UserOutboxRepository outboxRepository;
+    private final UserOutboxRelayLeaseRepository leaseRepository;
+    private final UserEventProducer userEventProducer;
+    private final CircuitBreaker kafkaCircuitBreaker;
+    private final int batchSize;
+    private final long leaseMs;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    // У Kafka свой breaker: недоступный брокер не должен открывать breaker операций с БД и наоборот.
+    // Аренда должна быть дольше самой долгой отправки (delivery.timeout.ms продюсера, по умолчанию 2 минуты),
+    // иначе другая реплика заберёт outbox, пока эта ещё ждёт подтверждений
+    public UserOutboxRelay(UserOutboxRepository outboxRepository, UserOutboxRelayLeaseRepository leaseRepository,
+                           UserEventProducer userEventProducer, CircuitBreakerFactory circuitBreakerFactory,
+                           @Value("${user-service.outbox.batch-size:500}") int batchSize,
+                           @Value("${user-service.outbox.relay.lease-ms:180000}") long leaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.userEventProducer = userEventProducer;
+        this.kafkaCircuitBreaker = circuitBreakerFactory.create(CircuitBreakerFactoryConfig.USER_EVENTS_KAFKA);
+        this.batchSize = batchSize;
+        this.leaseMs = leaseMs;
+    }
+
+    // Outbox разбирает одна реплика — та, что держит аренду: так события пользователя уходят в Kafka
+    // в порядке записи. Чтение, отправка и удаление идут без общей транзакции, поэтому ожидание
+    // подтверждений брокера не держит соединение с БД. Строки удаляются только после подтверждения:
+    // при ошибке или открытом breaker они остаются в outbox и будут отправлены повторно (at-least-once)
+    @Scheduled(fixedDelayString = "${user-service.outbox.poll-interval-ms:200}")
+    public void relayPendingEvents() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lockedUntil = now.plus(leaseMs, ChronoUnit.MILLIS);
+        if (leaseRepository.tryAcquire(UserOutboxRelayLease.RELAY, instanceId, now, lockedUntil) == 0) {
+            return;
+        }
+
+        List<UserOutboxEvent> pendingEvents = outboxRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (pendingEvents.isEmpty()) {
+            return;
+        }
+
+        List<UserEventDto> events = new ArrayList<>(pendingEvents.size());
+        for (UserOutboxEvent pendingEvent : pendingEvents) {
+            events.add(new UserEventDto(pendingEvent.getOperation(), pendingEvent.getUserId(),
+                    pendingEvent.getEmail(), pendingEvent.getUserName(), pendingEvent.getEventId(),
+                    pendingEvent.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()));
+        }
+
+        boolean sent = kafkaCircuitBreaker.run(() -> {
+            userEventProducer.sendEvents(events);
+            return true;
+        }, throwable -> {
+            logger.warn("Failed to relay {} user events, they stay in outbox: {}",
+                    pendingEvents.size(), throwable.getMessage());
+            return false;
+        });
+        if (!sent) {
+            return;
+        }
+
+        outboxRepository.deleteAllInBatch(pendingEvents);
+
+        logger.debug("Relayed {} user events from outbox", pendingEvents.size());
+    }
+
+    // При остановке аренда отдаётся сразу, чтобы другая реплика не ждала её истечения
+    @PreDestroy
+    public void releaseLease() {
+        try {
+            leaseRepository.release(UserOutboxRelayLease.RELAY, instanceId, LocalDateTime.now());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to release outbox relay lease, it expires in {} ms: {}", leaseMs, e.getMessage());
+        }
+    }
+}
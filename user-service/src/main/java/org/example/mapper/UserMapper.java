@@ -1,6 +1,7 @@
 package org.example.mapper;
 
 import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
 import org.example.entity.User;
 import org.springframework.stereotype.Component;
 
@@ -14,7 +15,20 @@ public class UserMapper {
                 user.getName(),
                 user.getEmail(),
                 user.getAge(),
-                user.getCreatedAt()
+                user.getCreatedAt(),
+                user.getVersion()
+        );
+    }
+
+    public UserResponseDto toResponseDto(UserView user) {
+
+        return new UserResponseDto(
+                user.id(),
+                user.name(),
+                user.email(),
+                user.age(),
+                user.createdAt(),
+                user.version()
         );
     }
 }
@@ -0,0 +1,28 @@
+package org.example.repository;
+
+import org.example.entity.UserOutboxRelayLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface UserOutboxRelayLeaseRepository extends JpaRepository<UserOutboxRelayLease, String> {
+
+    // Захват и продление одним UPDATE: строку получает либо текущий владелец, либо любой после истечения аренды
+    @Modifying
+    @Transactional
+    @Query("update UserOutboxRelayLease l set l.owner = :owner, l.lockedUntil = :lockedUntil "
+            + "where l.name = :name and (l.owner = :owner or l.lockedUntil < :now)")
+    int tryAcquire(@Param("name") String name, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("update UserOutboxRelayLease l set l.owner = null, l.lockedUntil = :now where l.name = :name and l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
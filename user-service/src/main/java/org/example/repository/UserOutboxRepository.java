@@ -0,0 +1,15 @@
+package org.example.repository;
+
+import org.example.entity.UserOutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UserOutboxRepository extends JpaRepository<UserOutboxEvent, Long> {
+
+    // Без блокировок строк: outbox разбирает одна реплика, держащая UserOutboxRelayLease
+    List<UserOutboxEvent> findByOrderByIdAsc(Limit limit);
+}
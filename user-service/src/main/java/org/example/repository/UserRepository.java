@@ -1,17 +1,32 @@
 package org.example.repository;
 
+import org.example.dto.UserView;
 import org.example.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Integer> {
 
-    boolean existsByEmail(String email);
-
     Optional<User> findByEmail(String email);
+
+    @Query("select new org.example.dto.UserView(u.id, u.name, u.email, u.age, u.createdAt, u.version) from User u where u.id = :id")
+    Optional<UserView> findViewById(@Param("id") int id);
+
+    @Query("select new org.example.dto.UserView(u.id, u.name, u.email, u.age, u.createdAt, u.version) from User u "
+            + "where u.id > :afterId order by u.id asc")
+    List<UserView> findViewsAfter(@Param("afterId") int afterId, Limit limit);
+
+    @Query("select new org.example.dto.UserView(u.id, u.name, u.email, u.age, u.createdAt, u.version) from User u where u.id in :ids")
+    List<UserView> findViewsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,8 @@
+package org.example.service;
+
+public class UserAlreadyExistsException extends RuntimeException {
+
+    public UserAlreadyExistsException(String email) {
+        super("Пользователь с email " + email + " уже существует");
+    }
+}
@@ -1,63 +1,162 @@
 package org.example.service;
 
+import org.example.config.CacheConfig;
+import org.example.config.CircuitBreakerFactoryConfig;
+import org.example.dto.UserBatchItemResultDto;
+import org.example.dto.UserLookupResultDto;
+import org.example.dto.UserPageDto;
+import org.example.dto.UserPatchDto;
 import org.example.dto.UserRequestDto;
 import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
 import org.example.entity.User;
-import org.example.kafka.UserEventProducer;
+import org.example.kafka.UserEventOutbox;
 import org.example.mapper.UserMapper;
 import org.example.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class UserService {
 
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
-    private final UserEventProducer userEventProducer;
-    private final CircuitBreakerFactory circuitBreakerFactory;
+    private final UserEventOutbox userEventOutbox;
+    private final CircuitBreaker circuitBreaker;
+    private final Cache userCache;
 
     @Autowired
     public UserService(UserRepository userRepository, UserMapper userMapper,
-                       UserEventProducer userEventProducer, CircuitBreakerFactory circuitBreakerFactory) {
+                       UserEventOutbox userEventOutbox, CircuitBreakerFactory circuitBreakerFactory,
+                       CacheManager cacheManager) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
-        this.userEventProducer = userEventProducer;
-        this.circuitBreakerFactory = circuitBreakerFactory;
+        this.userEventOutbox = userEventOutbox;
+        // Breaker создаётся один раз: фабрика на каждый вызов заново искала его в реестре
+        this.circuitBreaker = circuitBreakerFactory.create(CircuitBreakerFactoryConfig.USER_SERVICE);
+        // Вытеснение из кэша выполняется только после коммита транзакции
+        this.userCache = new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.USERS_CACHE));
     }
 
-    @Transactional(readOnly = true)
+    // Чтение идёт через проекцию UserView: без сущности, снимка для dirty checking и записи в persistence context
     public UserResponseDto findUserById(int id) {
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("userService");
+        UserView cachedUser = userCache.get(id, UserView.class);
+        if (cachedUser != null) {
+            return userMapper.toResponseDto(cachedUser);
+        }
 
         return circuitBreaker.run(() -> {
-            User user = userRepository.findById(id)
+            UserView user = userRepository.findViewById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Пользователь с id " + id + " не найден"));
+            userCache.put(id, user);
             return userMapper.toResponseDto(user);
         }, throwable -> {
             return createFallbackResponse(id, "Сервис временно недоступен. Попробуйте позже.");
         });
     }
 
-    @Transactional
-    public UserResponseDto createUser(UserRequestDto userRequestDto) {
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("userService");
+    // Пользователи из кэша не запрашиваются, остальные читаются одним запросом по списку id.
+    // Результаты идут в порядке запроса, повторяющиеся id возвращаются на каждой позиции
+    @Transactional(readOnly = true)
+    public List<UserLookupResultDto> findUsersByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new IllegalArgumentException("Список id не может быть пустым");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("За один запрос можно получить не более " + MAX_BATCH_SIZE + " пользователей");
+        }
+        for (Integer id : ids) {
+            if (id == null) {
+                throw new IllegalArgumentException("id пользователя не может быть пустым");
+            }
+        }
 
         return circuitBreaker.run(() -> {
-            validateUserData(userRequestDto);
+            Map<Integer, UserView> usersById = new HashMap<>(ids.size() * 2);
+            Set<Integer> missedIds = new HashSet<>();
+            for (Integer id : ids) {
+                UserView cachedUser = userCache.get(id, UserView.class);
+                if (cachedUser != null) {
+                    usersById.put(id, cachedUser);
+                } else {
+                    missedIds.add(id);
+                }
+            }
 
-            if (userRepository.existsByEmail(userRequestDto.getEmail())) {
-                throw new IllegalArgumentException("Пользователь с email " + userRequestDto.getEmail() + " уже существует");
+            if (!missedIds.isEmpty()) {
+                for (UserView user : userRepository.findViewsByIds(missedIds)) {
+                    usersById.put(user.id(), user);
+                    userCache.put(user.id(), user);
+                }
             }
 
+            List<UserLookupResultDto> results = new ArrayList<>(ids.size());
+            for (Integer id : ids) {
+                UserView user = usersById.get(id);
+                results.add(user == null
+                        ? UserLookupResultDto.missing(id)
+                        : UserLookupResultDto.found(id, userMapper.toResponseDto(user)));
+            }
+            return results;
+        }, throwable -> {
+            throw new RuntimeException("Сервис получения пользователей временно недоступен: " + throwable.getMessage());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public UserPageDto findUsersAfter(int afterId, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Размер страницы должен быть от 1 до " + MAX_PAGE_SIZE);
+        }
+
+        return circuitBreaker.run(() -> {
+            // Запрашиваем на одну запись больше, чтобы узнать о наличии следующей страницы без COUNT
+            List<UserView> users = userRepository.findViewsAfter(afterId, Limit.of(limit + 1));
+            boolean hasNext = users.size() > limit;
+
+            List<UserResponseDto> content = new ArrayList<>(Math.min(users.size(), limit));
+            for (int i = 0; i < users.size() && i < limit; i++) {
+                content.add(userMapper.toResponseDto(users.get(i)));
+            }
+
+            Integer nextCursor = hasNext ? users.get(limit - 1).id() : null;
+            return new UserPageDto(content, nextCursor);
+        }, throwable -> {
+            throw new RuntimeException("Сервис получения пользователей временно недоступен: " + throwable.getMessage());
+        });
+    }
+
+    @Transactional
+    public UserResponseDto createUser(UserRequestDto userRequestDto) {
+        return circuitBreaker.run(() -> {
+            validateUserData(userRequestDto);
+
             LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
             User newUser = new User(
                     userRequestDto.getName(),
@@ -66,17 +165,87 @@ public class UserService {
                     createdAt
             );
 
-            User savedUser = userRepository.save(newUser);
-
-            circuitBreaker.run(() -> {
-                userEventProducer.sendUserCreatedEvent(savedUser.getEmail(), savedUser.getName());
-                return null;
-            }, kafkaThrowable -> {
-                System.err.println("Ошибка отправки Kafka события: " + kafkaThrowable.getMessage());
-                return null;
-            });
+            User savedUser = saveWithUniqueEmail(newUser);
+            userEventOutbox.userCreated(savedUser);
 
             return userMapper.toResponseDto(savedUser);
+        }, throwable -> {
+            if (throwable instanceof UserAlreadyExistsException userAlreadyExists) {
+                throw userAlreadyExists;
+            }
+            throw new RuntimeException("Сервис создания пользователей временно недоступен: " + throwable.getMessage());
+        });
+    }
+
+    @Transactional
+    public List<UserBatchItemResultDto> createUsers(List<UserRequestDto> userRequestDtos) {
+        if (userRequestDtos == null || userRequestDtos.isEmpty()) {
+            throw new IllegalArgumentException("Список пользователей не может быть пустым");
+        }
+        if (userRequestDtos.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("За один запрос можно создать не более " + MAX_BATCH_SIZE + " пользователей");
+        }
+
+        return circuitBreaker.run(() -> {
+            List<UserBatchItemResultDto> results = new ArrayList<>(Collections.nCopies(userRequestDtos.size(), null));
+            Map<String, Integer> candidates = new LinkedHashMap<>();
+
+            for (int i = 0; i < userRequestDtos.size(); i++) {
+                UserRequestDto userRequestDto = userRequestDtos.get(i);
+                if (userRequestDto == null) {
+                    results.set(i, UserBatchItemResultDto.failed(i, "Данные пользователя не могут быть пустыми"));
+                    continue;
+                }
+                try {
+                    validateUserData(userRequestDto);
+                } catch (IllegalArgumentException e) {
+                    results.set(i, UserBatchItemResultDto.failed(i, e.getMessage()));
+                    continue;
+                }
+                if (candidates.putIfAbsent(userRequestDto.getEmail(), i) != null) {
+                    results.set(i, UserBatchItemResultDto.failed(i,
+                            "Email " + userRequestDto.getEmail() + " повторяется в запросе"));
+                }
+            }
+
+            Set<String> existingEmails = candidates.isEmpty()
+                    ? Set.of()
+                    : new HashSet<>(userRepository.findExistingEmails(candidates.keySet()));
+
+            LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+            List<User> newUsers = new ArrayList<>(candidates.size());
+            List<Integer> newUserIndexes = new ArrayList<>(candidates.size());
+
+            for (Map.Entry<String, Integer> candidate : candidates.entrySet()) {
+                int index = candidate.getValue();
+                if (existingEmails.contains(candidate.getKey())) {
+                    results.set(index, UserBatchItemResultDto.failed(index,
+                            "Пользователь с email " + candidate.getKey() + " уже существует"));
+                    continue;
+                }
+                UserRequestDto userRequestDto = userRequestDtos.get(index);
+                newUsers.add(new User(
+                        userRequestDto.getName(),
+                        userRequestDto.getEmail(),
+                        userRequestDto.getAge(),
+                        createdAt
+                ));
+                newUserIndexes.add(index);
+            }
+
+            if (newUsers.isEmpty()) {
+                return results;
+            }
+
+            List<User> savedUsers = userRepository.saveAll(newUsers);
+            userEventOutbox.usersCreated(savedUsers);
+
+            for (int i = 0; i < savedUsers.size(); i++) {
+                int index = newUserIndexes.get(i);
+                results.set(index, UserBatchItemResultDto.created(index, userMapper.toResponseDto(savedUsers.get(i))));
+            }
+
+            return results;
         }, throwable -> {
             throw new RuntimeException("Сервис создания пользователей временно недоступен: " + throwable.getMessage());
         });
@@ -89,44 +258,78 @@ public class UserService {
         fallback.setEmail("unavailable@example.com");
         fallback.setAge(0);
         fallback.setCreatedAt(LocalDateTime.now());
+        fallback.setUnavailable(true);
         return fallback;
     }
 
     @Transactional
     public UserResponseDto updateUser(int id, UserRequestDto userRequestDto) {
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("userService");
+        return updateUser(id, userRequestDto, null);
+    }
 
+    // expectedVersion приходит из If-Match; null — клиент обновляет без условия
+    @Transactional
+    public UserResponseDto updateUser(int id, UserRequestDto userRequestDto, Long expectedVersion) {
         return circuitBreaker.run(() -> {
             validateUserData(userRequestDto);
 
-            User user = userRepository.findById(id)
-                    .orElseThrow(() -> new IllegalArgumentException("Пользователь с id " + id + " не найден"));
+            User user = findForUpdate(id, expectedVersion);
 
             user.setName(userRequestDto.getName());
             user.setEmail(userRequestDto.getEmail());
             user.setAge(userRequestDto.getAge());
 
-            User updatedUser = userRepository.save(user);
+            User updatedUser = saveWithUniqueEmail(user);
+            userCache.evict(id);
+            userEventOutbox.userUpdated(updatedUser);
 
             return userMapper.toResponseDto(updatedUser);
-        }, throwable -> {
-            throw new RuntimeException("User update service unavailable: " + throwable.getMessage());
-        });
+        }, this::updateFallback);
     }
 
+    // Меняются только переданные поля. Без фактических изменений UPDATE, событие и вытеснение из кэша не выполняются
     @Transactional
-    public void deleteUser(int id) {
-        CircuitBreaker circuitBreaker = circuitBreakerFactory.create("userService");
+    public UserResponseDto patchUser(int id, UserPatchDto userPatchDto, Long expectedVersion) {
+        validatePatchData(userPatchDto);
+
+        return circuitBreaker.run(() -> {
+            User user = findForUpdate(id, expectedVersion);
+
+            boolean changed = false;
+            if (userPatchDto.getName() != null && !userPatchDto.getName().equals(user.getName())) {
+                user.setName(userPatchDto.getName());
+                changed = true;
+            }
+            if (userPatchDto.getEmail() != null && !userPatchDto.getEmail().equals(user.getEmail())) {
+                user.setEmail(userPatchDto.getEmail());
+                changed = true;
+            }
+            if (userPatchDto.getAge() != null && userPatchDto.getAge() != user.getAge()) {
+                user.setAge(userPatchDto.getAge());
+                changed = true;
+            }
+
+            if (!changed) {
+                return userMapper.toResponseDto(user);
+            }
+
+            User updatedUser = saveWithUniqueEmail(user);
+            userCache.evict(id);
+            userEventOutbox.userUpdated(updatedUser);
+
+            return userMapper.toResponseDto(updatedUser);
+        }, this::updateFallback);
+    }
 
+    @Transactional
+    public void deleteUser(int id) {
         circuitBreaker.run(() -> {
             User user = userRepository.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("Пользователь с id " + id + " не найден"));
 
-            String userEmail = user.getEmail();
-            String userName = user.getName();
-
             userRepository.deleteById(id);
-            userEventProducer.sendUserDeletedEvent(userEmail, userName);
+            userCache.evict(id);
+            userEventOutbox.userDeleted(user);
 
             return null;
         }, throwable -> {
@@ -134,7 +337,43 @@ public class UserService {
         });
     }
 
-    private void validateUserData(UserRequestDto userRequestDto) {
+    // Несовпадение версии проверяется до изменений; запись, изменённая после чтения, отсекается условием
+    // по версии в UPDATE (OptimisticLockingFailureException при flush)
+    private User findForUpdate(int id, Long expectedVersion) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Пользователь с id " + id + " не найден"));
+
+        if (expectedVersion != null && user.getVersion() != expectedVersion) {
+            throw new UserVersionMismatchException(id, expectedVersion, user.getVersion());
+        }
+        return user;
+    }
+
+    private UserResponseDto updateFallback(Throwable throwable) {
+        if (throwable instanceof UserAlreadyExistsException
+                || throwable instanceof UserVersionMismatchException
+                || throwable instanceof OptimisticLockingFailureException) {
+            throw (RuntimeException) throwable;
+        }
+        throw new RuntimeException("User update service unavailable: " + throwable.getMessage());
+    }
+
+    // Уникальность email обеспечивает индекс БД вместо запроса existsByEmail перед вставкой.
+    // flush проявляет нарушение сразу, внутри вызова Circuit Breaker, а не при коммите транзакции
+    private User saveWithUniqueEmail(User user) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_INDEX)) {
+                throw new UserAlreadyExistsException(user.getEmail());
+            }
+            throw e;
+        }
+    }
+
+    void validateUserData(UserRequestDto userRequestDto) {
         if (userRequestDto.getName() == null || userRequestDto.getName().isBlank()) {
             throw new IllegalArgumentException("Имя не может быть пустым");
         }
@@ -145,4 +384,19 @@ public class UserService {
             throw new IllegalArgumentException("Возраст должен быть положительным числом");
         }
     }
+
+    private void validatePatchData(UserPatchDto userPatchDto) {
+        if (userPatchDto == null) {
+            throw new IllegalArgumentException("Тело запроса не может быть пустым");
+        }
+        if (userPatchDto.getName() != null && userPatchDto.getName().isBlank()) {
+            throw new IllegalArgumentException("Имя не может быть пустым");
+        }
+        if (userPatchDto.getEmail() != null && userPatchDto.getEmail().isBlank()) {
+            throw new IllegalArgumentException("Email не может быть пустым");
+        }
+        if (userPatchDto.getAge() != null && userPatchDto.getAge() <= 0) {
+            throw new IllegalArgumentException("Возраст должен быть положительным числом");
+        }
+    }
 }
\ No newline at end of file
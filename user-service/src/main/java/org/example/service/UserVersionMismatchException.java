@@ -0,0 +1,9 @@
+package org.example.service;
+
+public class UserVersionMismatchException extends RuntimeException {
+
+    public UserVersionMismatchException(int id, long expectedVersion, long currentVersion) {
+        super("Пользователь с id " + id + " изменён: ожидалась версия " + expectedVersion
+                + ", текущая " + currentVersion);
+    }
+}
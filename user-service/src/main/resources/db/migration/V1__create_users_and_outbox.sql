@@ -0,0 +1,33 @@
+-- Исходная схема user-service. Совместима с PostgreSQL и H2.
+-- Шаг последовательностей совпадает с allocationSize в сущностях (50), иначе ddl-auto: validate не пройдёт.
+-- Существующие базы, где id уже переведён на users_id_seq и создан ux_users_email,
+-- принимаются за версию 1 (spring.flyway.baseline-on-migrate в профиле prod).
+
+CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id         INTEGER      NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    age        INTEGER      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id)
+);
+
+-- Имя должно совпадать с User.EMAIL_UNIQUE_INDEX: по нему сервис отличает дубликат email
+-- от других нарушений ограничений и отвечает 409. Индекс же обслуживает поиск по email.
+CREATE UNIQUE INDEX ux_users_email ON users (email);
+
+CREATE SEQUENCE user_outbox_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE user_outbox (
+    id         BIGINT       NOT NULL,
+    event_id   UUID         NOT NULL,
+    operation  VARCHAR(255) NOT NULL,
+    user_id    INTEGER,
+    email      VARCHAR(255),
+    user_name  VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_user_outbox PRIMARY KEY (id),
+    CONSTRAINT ux_user_outbox_event_id UNIQUE (event_id)
+);
@@ -0,0 +1,5 @@
+-- Индекс для выборок по диапазону created_at.
+-- На большой таблице PostgreSQL его можно заранее создать вручную без блокировки записи:
+-- CREATE INDEX CONCURRENTLY idx_users_created_at ON users (created_at);
+-- тогда миграция только отметится в истории.
+CREATE INDEX IF NOT EXISTS idx_users_created_at ON users (created_at);
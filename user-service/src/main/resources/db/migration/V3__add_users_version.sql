@@ -0,0 +1,3 @@
+-- Столбец версии для оптимистической блокировки (@Version в User).
+-- Существующие строки получают версию 0, DEFAULT добавляет столбец без перезаписи таблицы в PostgreSQL 11+.
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
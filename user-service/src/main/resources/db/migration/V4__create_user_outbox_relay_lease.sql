@@ -0,0 +1,10 @@
+-- Аренда ретранслятора outbox: события отправляет только реплика, которая держит аренду,
+-- иначе реплики отправляли бы события одного пользователя параллельно и нарушали их порядок.
+CREATE TABLE user_outbox_relay_lease (
+    name         VARCHAR(64)  NOT NULL,
+    owner        VARCHAR(64),
+    locked_until TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_user_outbox_relay_lease PRIMARY KEY (name)
+);
+
+INSERT INTO user_outbox_relay_lease (name, owner, locked_until) VALUES ('user-outbox-relay', NULL, TIMESTAMP '1970-01-01 00:00:00');
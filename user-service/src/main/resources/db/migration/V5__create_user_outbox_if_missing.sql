@@ -0,0 +1,16 @@
+-- Базы, принятые за версию 1 (baseline-on-migrate в профиле prod), не выполняли V1 и остались без outbox.
+-- Там, где V1 выполнена, таблица и последовательность уже есть, и миграция ничего не меняет.
+
+CREATE SEQUENCE IF NOT EXISTS user_outbox_id_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS user_outbox (
+    id         BIGINT       NOT NULL,
+    event_id   UUID         NOT NULL,
+    operation  VARCHAR(255) NOT NULL,
+    user_id    INTEGER,
+    email      VARCHAR(255),
+    user_name  VARCHAR(255),
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_user_outbox PRIMARY KEY (id),
+    CONSTRAINT ux_user_outbox_event_id UNIQUE (event_id)
+);
@@ -0,0 +1,180 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.example.entity.User;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+
+import javax.sql.DataSource;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Запуск: mvn test -pl user-service -Dbenchmarks=true -Dtest=ConnectionPoolThroughputTest
+// По умолчанию профиль prod работает на H2 (pg-standin). Для замера на PostgreSQL со схемой:
+// -Dload-test.profiles=prod -DDB_HOST=... -DDB_NAME=... -DDB_USERNAME=... -DDB_PASSWORD=...
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.kafka.admin.auto-create=false",
+        "user-service.outbox.relay.enabled=false"
+})
+@ActiveProfiles(resolver = ConnectionPoolThroughputTest.LoadTestProfiles.class)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class ConnectionPoolThroughputTest {
+
+    private static final int[] POOL_SIZES = {2, 4, 8, 16, 32};
+    private static final int CLIENTS = 64;
+    private static final int USERS = 2000;
+    private static final long WARMUP_MILLIS = 3000;
+    private static final long MEASURE_MILLIS = 5000;
+
+    // Каждый десятый запрос создаёт пользователя, остальные читают страницу из БД в обход кэша
+    private static final int WRITE_EVERY = 10;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(Executors.newFixedThreadPool(CLIENTS))
+            .build();
+    private final AtomicInteger emailSequence = new AtomicInteger();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void requestsPerSecond_AtDifferentPoolSizes() throws InterruptedException {
+        seedUsers();
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+
+        resizePool(hikari, POOL_SIZES[POOL_SIZES.length - 1]);
+        run(WARMUP_MILLIS);
+
+        List<String> report = new ArrayList<>();
+        for (int poolSize : POOL_SIZES) {
+            resizePool(hikari, poolSize);
+            Result result = run(MEASURE_MILLIS);
+            report.add(String.format("pool=%2d: %8.0f req/s, ошибок %d", poolSize, result.requestsPerSecond(), result.errors()));
+
+            assertThat(result.errors()).isZero();
+            assertThat(result.requestsPerSecond()).isPositive();
+        }
+
+        System.out.printf("%d клиентов, %s:%n%s%n", CLIENTS, hikari.getJdbcUrl(), String.join(System.lineSeparator(), report));
+    }
+
+    private void seedUsers() {
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("User " + i, "seed" + i + "@load.test", 20 + i % 50, LocalDateTime.now()));
+        }
+        userRepository.saveAll(users);
+    }
+
+    // Размер пула меняется через MXBean, а лишние соединения вытесняются, чтобы замер шёл на новом размере
+    private void resizePool(HikariDataSource hikari, int poolSize) throws InterruptedException {
+        HikariConfigMXBean config = hikari.getHikariConfigMXBean();
+        if (poolSize > config.getMaximumPoolSize()) {
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(poolSize);
+        } else {
+            config.setMinimumIdle(poolSize);
+            config.setMaximumPoolSize(poolSize);
+        }
+
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        pool.softEvictConnections();
+        while (pool.getTotalConnections() > poolSize) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    private Result run(long millis) throws InterruptedException {
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        int status = send(requests.get() % WRITE_EVERY == 0 ? createRequest() : pageRequest());
+                        if (status >= 300) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    requests.incrementAndGet();
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(millis + 30_000, TimeUnit.MILLISECONDS);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        return new Result(requests.get() / seconds, errors.get());
+    }
+
+    private HttpRequest pageRequest() {
+        int afterId = ThreadLocalRandom.current().nextInt(USERS);
+        return HttpRequest.newBuilder(uri("/api/users?limit=20&afterId=" + afterId))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private HttpRequest createRequest() {
+        String body = String.format("{\"name\":\"Load Test\",\"email\":\"load%d@load.test\",\"age\":30}",
+                emailSequence.incrementAndGet());
+        return HttpRequest.newBuilder(uri("/api/users"))
+                .header("Accept", "application/json")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private record Result(double requestsPerSecond, long errors) {
+    }
+
+    static class LoadTestProfiles implements ActiveProfilesResolver {
+
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return System.getProperty("load-test.profiles", "prod,pg-standin").split(",");
+        }
+    }
+}
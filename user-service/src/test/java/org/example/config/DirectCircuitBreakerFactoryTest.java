@@ -0,0 +1,84 @@
+package org.example.config;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectCircuitBreakerFactoryTest {
+
+    private final CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+    private final DirectCircuitBreakerFactory factory = new DirectCircuitBreakerFactory(registry);
+
+    @Test
+    void run_ShouldExecuteSupplierInCallerThread() {
+        CircuitBreaker circuitBreaker = factory.create("userService");
+        Thread caller = Thread.currentThread();
+
+        Thread executedIn = circuitBreaker.run(Thread::currentThread, throwable -> null);
+
+        assertSame(caller, executedIn);
+        assertEquals(1, registry.circuitBreaker("userService").getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void run_WhenSupplierFails_ShouldRecordFailureAndApplyFallback() {
+        CircuitBreaker circuitBreaker = factory.create("userService");
+        AtomicReference<Throwable> fallbackCause = new AtomicReference<>();
+        RuntimeException failure = new IllegalStateException("DB unavailable");
+
+        String result = circuitBreaker.run(() -> {
+            throw failure;
+        }, throwable -> {
+            fallbackCause.set(throwable);
+            return "fallback";
+        });
+
+        assertEquals("fallback", result);
+        assertSame(failure, fallbackCause.get());
+        assertEquals(1, registry.circuitBreaker("userService").getMetrics().getNumberOfFailedCalls());
+    }
+
+    @Test
+    void run_WhenBreakerIsOpen_ShouldSkipSupplierAndApplyFallback() {
+        CircuitBreaker circuitBreaker = factory.create("userService");
+        registry.circuitBreaker("userService").transitionToOpenState();
+
+        String result = circuitBreaker.run(() -> fail("Вызов не должен выполняться при открытом breaker"),
+                throwable -> throwable instanceof CallNotPermittedException ? "open" : "other");
+
+        assertEquals("open", result);
+    }
+
+    @Test
+    void create_ShouldUseInstanceRegisteredInRegistry() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .waitDurationInOpenState(Duration.ofSeconds(42))
+                .build();
+        registry.circuitBreaker("userEventsKafka", config);
+
+        factory.create("userEventsKafka").run(() -> "ok");
+
+        io.github.resilience4j.circuitbreaker.CircuitBreaker registered = registry.circuitBreaker("userEventsKafka");
+        assertSame(config, registered.getCircuitBreakerConfig());
+        assertEquals(1, registered.getMetrics().getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void configureDefault_ShouldApplyConfigurationToNewBreakers() {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .slidingWindowSize(3)
+                .build();
+        factory.configureDefault(id -> config);
+
+        factory.create("userEventsKafka");
+
+        assertSame(config, registry.circuitBreaker("userEventsKafka").getCircuitBreakerConfig());
+    }
+}
@@ -1,12 +1,19 @@
 package org.example.config;
 
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.example.dto.UserEventDto;
+import org.example.kafka.UserEventBinarySerializer;
+import org.example.kafka.UserEventDeserializer;
 import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Map;
 
@@ -93,9 +100,83 @@ class KafkaConfigTest {
         ProducerFactory<String, UserEventDto> producerFactory = kafkaConfig.producerFactory();
         Map<String, Object> configProps = producerFactory.getConfigurationProperties();
 
-        assertEquals(3, configProps.size(), "Should contain exactly 3 configuration properties");
+        assertEquals(8, configProps.size(), "Should contain exactly 8 configuration properties");
         assertTrue(configProps.containsKey(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
         assertTrue(configProps.containsKey(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG));
         assertTrue(configProps.containsKey(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
     }
-}
\ No newline at end of file
+
+    @Test
+    void producerFactory_ByDefault_ShouldUseSafeUnbatchedSettings() {
+        Map<String, Object> configProps = kafkaConfig.producerFactory().getConfigurationProperties();
+
+        assertEquals("all", configProps.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(true, configProps.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals(0, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(16384, configProps.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("none", configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    }
+
+    @Test
+    void producerFactory_ShouldApplyConfiguredThroughputSettings() {
+        KafkaConfig tunedConfig = new KafkaConfig();
+        ReflectionTestUtils.setField(tunedConfig, "bootstrapServers", "kafka:9092");
+        ReflectionTestUtils.setField(tunedConfig, "acks", "1");
+        ReflectionTestUtils.setField(tunedConfig, "lingerMs", 20);
+        ReflectionTestUtils.setField(tunedConfig, "batchSize", 131072);
+        ReflectionTestUtils.setField(tunedConfig, "compressionType", "zstd");
+
+        Map<String, Object> configProps = tunedConfig.producerFactory().getConfigurationProperties();
+
+        assertEquals("kafka:9092", configProps.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals("1", configProps.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(20, configProps.get(ProducerConfig.LINGER_MS_CONFIG));
+        assertEquals(131072, configProps.get(ProducerConfig.BATCH_SIZE_CONFIG));
+        assertEquals("zstd", configProps.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+    }
+
+    @Test
+    void producerFactory_WithBinaryFormat_ShouldUseBinarySerializer() {
+        KafkaConfig binaryConfig = new KafkaConfig();
+        ReflectionTestUtils.setField(binaryConfig, "userEventsFormat", "binary");
+
+        Map<String, Object> configProps = binaryConfig.producerFactory().getConfigurationProperties();
+
+        assertEquals(UserEventBinarySerializer.class, configProps.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+    }
+
+    @Test
+    void producerFactory_WithUnknownFormat_ShouldThrowException() {
+        KafkaConfig unknownConfig = new KafkaConfig();
+        ReflectionTestUtils.setField(unknownConfig, "userEventsFormat", "avro");
+
+        assertThrows(IllegalArgumentException.class, unknownConfig::producerFactory);
+    }
+
+    @Test
+    void userEventsTopic_ShouldUseConfiguredPartitionCount() {
+        NewTopic topic = kafkaConfig.userEventsTopic();
+
+        assertEquals("user-events", topic.name());
+        assertEquals(3, topic.numPartitions());
+    }
+
+    @Test
+    void consumerFactory_ShouldReadOnlyNewEventsAsUserEventDto() {
+        ConsumerFactory<String, UserEventDto> consumerFactory = kafkaConfig.consumerFactory();
+
+        Map<String, Object> configProps = consumerFactory.getConfigurationProperties();
+
+        assertEquals("localhost:9092", configProps.get(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals(UserEventDeserializer.class, configProps.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG));
+        assertEquals("latest", configProps.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG));
+    }
+
+    @Test
+    void kafkaListenerContainerFactory_ShouldHaveConsumerFactorySet() {
+        ConcurrentKafkaListenerContainerFactory<String, UserEventDto> factory =
+                kafkaConfig.kafkaListenerContainerFactory();
+
+        assertNotNull(factory.getConsumerFactory());
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.UserView;
+import org.example.entity.User;
+import org.example.repository.UserRepository;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.JpaProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.kafka.admin.auto-create=false",
+        "user-service.outbox.relay.enabled=false"
+})
+@ActiveProfiles({"prod", "pg-standin"})
+class ProdProfileTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JpaProperties jpaProperties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void dataSource_ShouldBeFixedSizeHikariPool() {
+        assertThat(dataSource).isInstanceOf(HikariDataSource.class);
+
+        HikariDataSource hikari = (HikariDataSource) dataSource;
+        assertThat(hikari.getPoolName()).isEqualTo("user-service-db");
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(10);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(hikari.getMaximumPoolSize());
+        assertThat(hikari.getConnectionTimeout()).isEqualTo(3000);
+        assertThat(hikari.isAutoCommit()).isFalse();
+    }
+
+    @Test
+    void hibernate_ShouldUsePostgresDialectWithBatchingAndNoSqlLogging() {
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+
+        assertThat(entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect())
+                .isInstanceOf(PostgreSQLDialect.class);
+        assertThat(properties)
+                .containsEntry("hibernate.jdbc.batch_size", "50")
+                .containsEntry("hibernate.order_inserts", "true")
+                .containsEntry("hibernate.order_updates", "true")
+                .containsEntry("hibernate.connection.provider_disables_autocommit", "true")
+                .containsEntry("hibernate.query.in_clause_parameter_padding", "true");
+        assertThat(jpaProperties.isShowSql()).isFalse();
+    }
+
+    @Test
+    void repository_ShouldWorkAgainstStandInWithPostgresDialect() {
+        User saved = userRepository.saveAndFlush(
+                new User("John Doe", "prod-profile@example.com", 30, LocalDateTime.now()));
+
+        assertThat(userRepository.findViewById(saved.getId()))
+                .map(UserView::email)
+                .contains("prod-profile@example.com");
+        assertThat(userRepository.findViewsByIds(List.of(saved.getId(), -1, -2)))
+                .extracting(UserView::id)
+                .containsExactly(saved.getId());
+    }
+}
@@ -1,25 +1,44 @@
 package org.example.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.config.HalJsonConfig;
+import org.example.dto.UserBatchItemResultDto;
+import org.example.dto.UserLookupResultDto;
+import org.example.dto.UserPageDto;
+import org.example.dto.UserPatchDto;
 import org.example.dto.UserRequestDto;
 import org.example.dto.UserResponseDto;
+import org.example.service.UserAlreadyExistsException;
 import org.example.service.UserService;
+import org.example.service.UserVersionMismatchException;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(UserController.class)
+@Import({UserLinks.class, HalJsonConfig.class})
 public class UserControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -43,6 +62,106 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.age").value(25));
     }
 
+    @Test
+    void getUser_ReturnsVersionAsETag() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now(), 3));
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+    }
+
+    @Test
+    void getUser_AcceptPlainJson_ReturnsDifferentETag() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now(), 3));
+
+        mockMvc.perform(get("/api/users/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+        mockMvc.perform(get("/api/users/1").accept(MediaType.APPLICATION_JSON).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links").doesNotExist());
+    }
+
+    @Test
+    void getUser_AcceptJsonSuffixWildcard_ReturnsLinks() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.ACCEPT, "application/json, application/*+json"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/users/1"));
+    }
+
+    @Test
+    void getUser_FallbackResponse_HasNoETagAndIsNotCached() throws Exception {
+        UserResponseDto fallback = new UserResponseDto(1, "Сервис временно недоступен", "unavailable@example.com", 0,
+                LocalDateTime.now());
+        fallback.setUnavailable(true);
+        when(userService.findUserById(1)).thenReturn(fallback);
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.name").value("Сервис временно недоступен"))
+                .andExpect(jsonPath("$.unavailable").doesNotExist())
+                .andExpect(jsonPath("$._links").doesNotExist());
+    }
+
+    @Test
+    void getUser_IfNoneMatchCurrentVersion_ReturnsNotModified() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now(), 3));
+
+        mockMvc.perform(get("/api/users/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getUser_ByDefault_ReturnsHalLinks() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/users/1"))
+                .andExpect(jsonPath("$._links.update.href").value("http://localhost/api/users/1"))
+                .andExpect(jsonPath("$._links.delete.href").value("http://localhost/api/users/1"))
+                .andExpect(jsonPath("$._links.collection.href").value("http://localhost/api/users{?afterId,limit}"))
+                .andExpect(jsonPath("$._links.collection.templated").value(true));
+    }
+
+    @Test
+    void getUser_AcceptHal_ReturnsLinks() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/users/1").accept(MediaTypes.HAL_JSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._links.self.href").value("http://localhost/api/users/1"));
+    }
+
+    @Test
+    void getUser_AcceptPlainJson_OmitsLinks() throws Exception {
+        when(userService.findUserById(1))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/users/1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$._links").doesNotExist())
+                .andExpect(jsonPath("$.links").doesNotExist());
+    }
+
     @Test
     void createUser_ValidData_ReturnsCreated() throws Exception {
         UserRequestDto requestDto = new UserRequestDto("John", "john@test.com", 25);
@@ -71,12 +190,60 @@ public class UserControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createUser_DuplicateEmail_ReturnsConflict() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto("John", "john@test.com", 25);
+
+        when(userService.createUser(any(UserRequestDto.class)))
+                .thenThrow(new UserAlreadyExistsException("john@test.com"));
+
+        mockMvc.perform(post("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string("Пользователь с email john@test.com уже существует"));
+    }
+
+    @Test
+    void createUsers_ValidBatch_ReturnsPerItemResults() throws Exception {
+        List<UserRequestDto> requestDtos = List.of(
+                new UserRequestDto("John", "john@test.com", 25),
+                new UserRequestDto("Jane", "john@test.com", 30));
+        UserResponseDto responseDto = new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now());
+
+        when(userService.createUsers(anyList())).thenReturn(List.of(
+                UserBatchItemResultDto.created(0, responseDto),
+                UserBatchItemResultDto.failed(1, "Email john@test.com повторяется в запросе")));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].success").value(true))
+                .andExpect(jsonPath("$[0].user.id").value(1))
+                .andExpect(jsonPath("$[0].user._links.self.href").value("http://localhost/api/users/1"))
+                .andExpect(jsonPath("$[1].success").value(false))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("Email john@test.com повторяется в запросе"));
+    }
+
+    @Test
+    void createUsers_EmptyBatch_ReturnsBadRequest() throws Exception {
+        when(userService.createUsers(anyList()))
+                .thenThrow(new IllegalArgumentException("Список пользователей не может быть пустым"));
+
+        mockMvc.perform(post("/api/users/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateUser_ExistingUser_ReturnsUpdatedUser() throws Exception {
         UserRequestDto requestDto = new UserRequestDto("John Updated", "updated@test.com", 30);
         UserResponseDto responseDto = new UserResponseDto(1, "John Updated", "updated@test.com", 30, LocalDateTime.now());
 
-        when(userService.updateUser(anyInt(), any(UserRequestDto.class))).thenReturn(responseDto);
+        when(userService.updateUser(anyInt(), any(UserRequestDto.class), isNull())).thenReturn(responseDto);
 
         mockMvc.perform(put("/api/users/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -86,6 +253,94 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.age").value(30));
     }
 
+    @Test
+    void updateUser_WithIfMatch_PassesExpectedVersionAndReturnsNewETag() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto("John Updated", "updated@test.com", 30);
+        when(userService.updateUser(eq(1), any(UserRequestDto.class), eq(3L)))
+                .thenReturn(new UserResponseDto(1, "John Updated", "updated@test.com", 30, LocalDateTime.now(), 4));
+
+        mockMvc.perform(put("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void updateUser_WithPlainJsonIfMatch_PassesExpectedVersion() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto("John Updated", "updated@test.com", 30);
+        when(userService.updateUser(eq(1), any(UserRequestDto.class), eq(3L)))
+                .thenReturn(new UserResponseDto(1, "John Updated", "updated@test.com", 30, LocalDateTime.now(), 4));
+
+        mockMvc.perform(put("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3-json\"")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-json\""));
+    }
+
+    @Test
+    void updateUser_StaleIfMatch_ReturnsPreconditionFailed() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto("John Updated", "updated@test.com", 30);
+        when(userService.updateUser(eq(1), any(UserRequestDto.class), eq(2L)))
+                .thenThrow(new UserVersionMismatchException(1, 2, 3));
+
+        mockMvc.perform(put("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(content().string("Пользователь с id 1 изменён: ожидалась версия 2, текущая 3"));
+    }
+
+    @Test
+    void updateUser_MalformedIfMatch_ReturnsBadRequest() throws Exception {
+        UserRequestDto requestDto = new UserRequestDto("John Updated", "updated@test.com", 30);
+
+        mockMvc.perform(put("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void patchUser_PassesOnlySuppliedFields() throws Exception {
+        when(userService.patchUser(eq(1), any(UserPatchDto.class), eq(0L)))
+                .thenReturn(new UserResponseDto(1, "John", "john@test.com", 26, LocalDateTime.now(), 1));
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"age\":26}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.age").value(26))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        ArgumentCaptor<UserPatchDto> patchCaptor = ArgumentCaptor.forClass(UserPatchDto.class);
+        verify(userService).patchUser(eq(1), patchCaptor.capture(), eq(0L));
+        assertThat(patchCaptor.getValue().getAge()).isEqualTo(26);
+        assertThat(patchCaptor.getValue().getName()).isNull();
+        assertThat(patchCaptor.getValue().getEmail()).isNull();
+    }
+
+    @Test
+    void patchUser_ConcurrentModification_ReturnsConflict() throws Exception {
+        when(userService.patchUser(eq(1), any(UserPatchDto.class), isNull()))
+                .thenThrow(new ObjectOptimisticLockingFailureException("User", 1));
+
+        mockMvc.perform(patch("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Johnny\"}"))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void deleteUser_ExistingUser_ReturnsNoContent() throws Exception {
         doNothing().when(userService).deleteUser(1);
@@ -106,12 +361,110 @@ public class UserControllerTest {
     }
 
     @Test
-    void getAllUsers_ReturnsApiInfo() throws Exception {
+    void getUsersByIds_ReturnsUsersInRequestOrderWithMissingFlagged() throws Exception {
+        when(userService.findUsersByIds(List.of(2, 99, 1))).thenReturn(List.of(
+                UserLookupResultDto.found(2, new UserResponseDto(2, "Jane", "jane@test.com", 30, LocalDateTime.now())),
+                UserLookupResultDto.missing(99),
+                UserLookupResultDto.found(1, new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()))));
+
+        mockMvc.perform(get("/api/users").param("ids", "2,99,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].id").value(2))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].user.email").value("jane@test.com"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andExpect(jsonPath("$[0].user._links.self.href").value("http://localhost/api/users/2"))
+                .andExpect(jsonPath("$[0].user.links").doesNotExist())
+                .andExpect(jsonPath("$[1].id").value(99))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].user").doesNotExist())
+                .andExpect(jsonPath("$[2].user.name").value("John"));
+
+        verify(userService, never()).findUsersAfter(anyInt(), anyInt());
+    }
+
+    @Test
+    void getUsersByIds_AcceptPlainJson_OmitsLinks() throws Exception {
+        when(userService.findUsersByIds(List.of(1))).thenReturn(List.of(
+                UserLookupResultDto.found(1, new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()))));
+
+        mockMvc.perform(get("/api/users").param("ids", "1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user.id").value(1))
+                .andExpect(jsonPath("$[0].user._links").doesNotExist())
+                .andExpect(jsonPath("$[0].user.links").doesNotExist());
+    }
+
+    @Test
+    void getAllUsers_FirstPage_ReturnsUsersAndNextCursor() throws Exception {
+        UserPageDto page = new UserPageDto(List.of(
+                new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now()),
+                new UserResponseDto(2, "Jane", "jane@test.com", 30, LocalDateTime.now())), 2);
+        when(userService.findUsersAfter(0, 2)).thenReturn(page);
+
+        mockMvc.perform(get("/api/users").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[1].email").value("jane@test.com"))
+                .andExpect(jsonPath("$.nextCursor").value(2))
+                .andExpect(jsonPath("$._links.next.href").value("http://localhost/api/users?afterId=2&limit=2"));
+    }
+
+    @Test
+    void getAllUsers_AcceptPlainJson_OmitsLinks() throws Exception {
+        UserPageDto page = new UserPageDto(List.of(
+                new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now())), 1);
+        when(userService.findUsersAfter(0, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/api/users").param("limit", "1").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.content[0]._links").doesNotExist())
+                .andExpect(jsonPath("$._links").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(1));
+    }
+
+    @Test
+    void getAllUsers_WithoutParameters_UsesDefaultPageSize() throws Exception {
+        when(userService.findUsersAfter(0, 50)).thenReturn(new UserPageDto(List.of(), null));
+
         mockMvc.perform(get("/api/users"))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$.info").value("User Management API"))
-                .andExpect(jsonPath("$.endpoints").exists())
-                .andExpect(jsonPath("$.documentation").exists());
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$._links.next").doesNotExist());
+
+        verify(userService).findUsersAfter(0, 50);
+    }
+
+    @Test
+    void getAllUsers_InvalidLimit_ReturnsBadRequest() throws Exception {
+        when(userService.findUsersAfter(anyInt(), eq(5000)))
+                .thenThrow(new IllegalArgumentException("Размер страницы должен быть от 1 до 1000"));
+
+        mockMvc.perform(get("/api/users").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamUsers_ReadsAllChunksAndWritesNdjson() throws Exception {
+        when(userService.findUsersAfter(0, 500)).thenReturn(new UserPageDto(List.of(
+                new UserResponseDto(1, "John", "john@test.com", 25, LocalDateTime.now())), 1));
+        when(userService.findUsersAfter(1, 500)).thenReturn(new UserPageDto(List.of(
+                new UserResponseDto(2, "Jane", "jane@test.com", 30, LocalDateTime.now())), null));
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/users/stream").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"id\":1").doesNotContain("links");
+        assertThat(lines[1]).contains("\"email\":\"jane@test.com\"");
     }
 }
\ No newline at end of file
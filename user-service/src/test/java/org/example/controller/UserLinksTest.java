@@ -0,0 +1,89 @@
+package org.example.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserLinksTest {
+
+    private final UserLinks userLinks = new UserLinks();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    private MockHttpServletRequest currentRequest(String host, int port, String accept) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.setServerName(host);
+        request.setServerPort(port);
+        if (accept != null) {
+            request.addHeader("Accept", accept);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        return request;
+    }
+
+    @Test
+    void current_ShouldBuildLinksFromRequestBaseUri() {
+        currentRequest("users.example.com", 8081, null);
+
+        UserLinks.Templates links = userLinks.current();
+
+        Link self = links.self(42);
+        assertEquals("http://users.example.com:8081/api/users/42", self.getHref());
+        assertEquals(IanaLinkRelations.SELF, self.getRel());
+        assertEquals("http://users.example.com:8081/api/users/42", links.user(42, UserLinks.DELETE).getHref());
+        assertEquals("http://users.example.com:8081/api/users{?afterId,limit}", links.collection().getHref());
+        assertTrue(links.collection().isTemplated());
+    }
+
+    @Test
+    void current_ShouldReuseTemplatesForSameBaseUri() {
+        currentRequest("localhost", 80, null);
+        UserLinks.Templates first = userLinks.current();
+
+        currentRequest("localhost", 80, null);
+        UserLinks.Templates second = userLinks.current();
+
+        currentRequest("other-host", 80, null);
+        UserLinks.Templates other = userLinks.current();
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals("http://other-host/api/users/1", other.self(1).getHref());
+    }
+
+    @Test
+    void isRequested_ShouldDependOnAcceptHeader() {
+        currentRequest("localhost", 80, null);
+        assertTrue(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "*/*");
+        assertTrue(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "application/hal+json");
+        assertTrue(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "application/json, application/hal+json;q=0.9");
+        assertTrue(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "application/json, application/*+json");
+        assertTrue(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "application/json, application/*");
+        assertFalse(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "application/json");
+        assertFalse(userLinks.isRequested());
+
+        currentRequest("localhost", 80, "application/json, text/plain, */*");
+        assertFalse(userLinks.isRequested());
+    }
+}
@@ -2,6 +2,8 @@ package org.example.dto;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UserEventDtoTest {
@@ -30,6 +32,29 @@ class UserEventDtoTest {
         assertEquals(userName, dto.getUserName());
     }
 
+    @Test
+    void constructorWithUserId_CreatesObjectWithProvidedValues() {
+        UserEventDto dto = new UserEventDto("DELETE", 7, "test@example.com", "John Doe");
+
+        assertEquals("DELETE", dto.getOperation());
+        assertEquals(7, dto.getUserId());
+        assertEquals("test@example.com", dto.getEmail());
+        assertEquals("John Doe", dto.getUserName());
+        assertNull(dto.getEventId());
+        assertNull(dto.getTimestamp());
+    }
+
+    @Test
+    void constructorWithEventId_CreatesObjectWithIdAndTimestamp() {
+        UUID eventId = UUID.randomUUID();
+
+        UserEventDto dto = new UserEventDto("CREATE", 7, "test@example.com", "John Doe", eventId, 1700000000000L);
+
+        assertEquals(7, dto.getUserId());
+        assertEquals(eventId, dto.getEventId());
+        assertEquals(1700000000000L, dto.getTimestamp());
+    }
+
     @Test
     void allArgsConstructor_WithNullValues_CreatesObject() {
         UserEventDto dto = new UserEventDto(null, null, null);
@@ -92,6 +92,19 @@ public class UserEntityTest {
         assertEquals(newCreatedAt, user.getCreatedAt());
     }
 
+    @Test
+    void getter_getVersion() {
+        User user = new User("dcece", "23dew@mail.ru", 34, LocalDateTime.now());
+        assertEquals(0, user.getVersion());
+    }
+
+    @Test
+    void setter_setVersion() {
+        User user = new User("dcece", "23dew@mail.ru", 34, LocalDateTime.now());
+        user.setVersion(5);
+        assertEquals(5, user.getVersion());
+    }
+
     @Test
     void toString_test() {
         User user = new User("dcece", "23dew@mail.ru", 34, LocalDateTime.now());
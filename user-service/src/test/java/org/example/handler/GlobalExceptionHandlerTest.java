@@ -1,6 +1,10 @@
 package org.example.handler;
 
+import org.example.service.UserAlreadyExistsException;
+import org.example.service.UserVersionMismatchException;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -22,6 +26,46 @@ class GlobalExceptionHandlerTest {
         assertEquals(errorMessage, response.getBody());
     }
 
+    @Test
+    void handleUserAlreadyExistsException_ReturnsConflictWithMessage() {
+        UserAlreadyExistsException exception = new UserAlreadyExistsException("john@example.com");
+
+        ResponseEntity<String> response = exceptionHandler.handleUserAlreadyExistsException(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Пользователь с email john@example.com уже существует", response.getBody());
+    }
+
+    @Test
+    void handleDataIntegrityViolationException_ReturnsConflict() {
+        DataIntegrityViolationException exception = new DataIntegrityViolationException("duplicate key");
+
+        ResponseEntity<String> response = exceptionHandler.handleDataIntegrityViolationException(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Данные конфликтуют с уже существующими записями", response.getBody());
+    }
+
+    @Test
+    void handleUserVersionMismatchException_ReturnsPreconditionFailedWithMessage() {
+        UserVersionMismatchException exception = new UserVersionMismatchException(1, 2, 3);
+
+        ResponseEntity<String> response = exceptionHandler.handleUserVersionMismatchException(exception);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+        assertEquals("Пользователь с id 1 изменён: ожидалась версия 2, текущая 3", response.getBody());
+    }
+
+    @Test
+    void handleOptimisticLockingFailureException_ReturnsConflict() {
+        ObjectOptimisticLockingFailureException exception = new ObjectOptimisticLockingFailureException("User", 1);
+
+        ResponseEntity<String> response = exceptionHandler.handleOptimisticLockingFailureException(exception);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals("Пользователь изменён параллельным запросом, повторите обновление", response.getBody());
+    }
+
     @Test
     void handleGenericException_ReturnsInternalServerError() {
         Exception exception = new Exception("Unexpected error");
@@ -0,0 +1,53 @@
+package org.example.kafka;
+
+import org.example.dto.UserEventDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserCacheInvalidationListenerTest {
+
+    private Cache userCache;
+
+    private UserCacheInvalidationListener listener;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        userCache = cacheManager.getCache("users");
+        listener = new UserCacheInvalidationListener(cacheManager);
+
+        userCache.put(1, "cached user");
+    }
+
+    @Test
+    void onUserEvent_UpdateEvent_ShouldEvictUser() {
+        listener.onUserEvent(new UserEventDto("UPDATE", 1, "test@example.com", "John Doe"));
+
+        assertNull(userCache.get(1));
+    }
+
+    @Test
+    void onUserEvent_DeleteEvent_ShouldEvictUser() {
+        listener.onUserEvent(new UserEventDto("DELETE", 1, "test@example.com", "John Doe"));
+
+        assertNull(userCache.get(1));
+    }
+
+    @Test
+    void onUserEvent_CreateEvent_ShouldKeepCache() {
+        listener.onUserEvent(new UserEventDto("CREATE", 1, "test@example.com", "John Doe"));
+
+        assertNotNull(userCache.get(1));
+    }
+
+    @Test
+    void onUserEvent_EventWithoutUserId_ShouldBeIgnored() {
+        listener.onUserEvent(new UserEventDto("DELETE", "test@example.com", "John Doe"));
+
+        assertNotNull(userCache.get(1));
+    }
+}
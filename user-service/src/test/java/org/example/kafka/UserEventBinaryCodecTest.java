@@ -0,0 +1,105 @@
+package org.example.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.example.dto.UserEventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventBinaryCodecTest {
+
+    // Эталон версии 1; такой же проверяется в notification-service. Если тест упал, формат сломал совместимость
+    private static final String VERSION_1_EVENT = "0107000000000000000100000000000000020000018bcfe56800"
+            + "0707435245415445066140622e6309d098d0b2d0b0d0bd";
+
+    @Test
+    void encode_ShouldMatchVersionOneLayout() {
+        UserEventDto event = new UserEventDto("CREATE", 7, "a@b.c", "Иван", new UUID(1, 2), 1700000000000L);
+
+        assertEquals(VERSION_1_EVENT, HexFormat.of().formatHex(UserEventBinaryCodec.encode(event)));
+    }
+
+    @Test
+    void encode_ShouldBeLessThanHalfOfJsonEvent() {
+        UserEventDto event = new UserEventDto("CREATE", 1234, "john.doe@example.com", "John Doe", UUID.randomUUID(),
+                System.currentTimeMillis());
+
+        try (JsonSerializer<UserEventDto> jsonSerializer = new JsonSerializer<>()) {
+            byte[] json = jsonSerializer.serialize("user-events", new RecordHeaders(), event);
+
+            assertTrue(UserEventBinaryCodec.encode(event).length < json.length / 2);
+        }
+    }
+
+    @Test
+    void decode_ShouldRestoreAllFields() {
+        UUID eventId = UUID.randomUUID();
+        UserEventDto event = new UserEventDto("UPDATE", 300_000, "john@example.com", "John Doe", eventId,
+                System.currentTimeMillis());
+
+        UserEventDto decoded = UserEventBinaryCodec.decode(UserEventBinaryCodec.encode(event));
+
+        assertEquals("UPDATE", decoded.getOperation());
+        assertEquals(300_000, decoded.getUserId());
+        assertEquals("john@example.com", decoded.getEmail());
+        assertEquals("John Doe", decoded.getUserName());
+        assertEquals(eventId, decoded.getEventId());
+        assertEquals(event.getTimestamp(), decoded.getTimestamp());
+    }
+
+    @Test
+    void decode_ShouldKeepNullAndEmptyFieldsApart() {
+        UserEventDto event = new UserEventDto(null, "", null);
+
+        UserEventDto decoded = UserEventBinaryCodec.decode(UserEventBinaryCodec.encode(event));
+
+        assertNull(decoded.getOperation());
+        assertEquals("", decoded.getEmail());
+        assertNull(decoded.getUserName());
+        assertNull(decoded.getUserId());
+        assertNull(decoded.getEventId());
+        assertNull(decoded.getTimestamp());
+    }
+
+    @Test
+    void decode_ShouldIgnoreFieldsAppendedByNewerWriters() {
+        byte[] data = HexFormat.of().parseHex(VERSION_1_EVENT);
+        byte[] extended = Arrays.copyOf(data, data.length + 3);
+
+        UserEventDto decoded = UserEventBinaryCodec.decode(extended);
+
+        assertEquals("Иван", decoded.getUserName());
+    }
+
+    @Test
+    void decode_WithUnknownVersion_ShouldThrowException() {
+        byte[] data = HexFormat.of().parseHex(VERSION_1_EVENT);
+        data[0] = 2;
+
+        assertThrows(SerializationException.class, () -> UserEventBinaryCodec.decode(data));
+        assertThrows(SerializationException.class, () -> UserEventBinaryCodec.decode(new byte[0]));
+    }
+
+    @Test
+    void decode_WithTruncatedData_ShouldThrowException() {
+        byte[] data = HexFormat.of().parseHex(VERSION_1_EVENT);
+
+        assertThrows(SerializationException.class,
+                () -> UserEventBinaryCodec.decode(Arrays.copyOf(data, data.length - 2)));
+        assertThrows(SerializationException.class,
+                () -> UserEventBinaryCodec.decode(Arrays.copyOf(data, 10)));
+    }
+
+    @Test
+    void isJson_ShouldDistinguishJsonFromBinary() {
+        assertTrue(UserEventBinaryCodec.isJson("{\"operation\":\"CREATE\"}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(UserEventBinaryCodec.isJson(HexFormat.of().parseHex(VERSION_1_EVENT)));
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.kafka;
+
+import org.example.dto.UserEventDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventDeserializerTest {
+
+    private final UserEventDeserializer deserializer = new UserEventDeserializer();
+
+    @Test
+    void deserialize_ShouldReadBinaryEvents() {
+        UUID eventId = UUID.randomUUID();
+        byte[] data = new UserEventBinarySerializer().serialize("user-events",
+                new UserEventDto("CREATE", 1, "john@example.com", "John Doe", eventId, 1L));
+
+        UserEventDto event = deserializer.deserialize("user-events", data);
+
+        assertEquals("CREATE", event.getOperation());
+        assertEquals(1, event.getUserId());
+        assertEquals(eventId, event.getEventId());
+    }
+
+    @Test
+    void deserialize_ShouldReadJsonEvents() {
+        try (JsonSerializer<UserEventDto> jsonSerializer = new JsonSerializer<>()) {
+            byte[] data = jsonSerializer.serialize("user-events",
+                    new UserEventDto("DELETE", 2, "jane@example.com", "Jane Doe"));
+
+            UserEventDto event = deserializer.deserialize("user-events", data);
+
+            assertEquals("DELETE", event.getOperation());
+            assertEquals(2, event.getUserId());
+            assertEquals("jane@example.com", event.getEmail());
+        }
+    }
+
+    @Test
+    void serializeAndDeserialize_WithNull_ShouldReturnNull() {
+        assertNull(new UserEventBinarySerializer().serialize("user-events", null));
+        assertNull(deserializer.deserialize("user-events", null));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.kafka;
+
+import org.example.entity.User;
+import org.example.entity.UserOutboxEvent;
+import org.example.repository.UserOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventOutboxTest {
+
+    @Mock
+    private UserOutboxRepository outboxRepository;
+
+    @InjectMocks
+    private UserEventOutbox userEventOutbox;
+
+    @Captor
+    private ArgumentCaptor<UserOutboxEvent> eventCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<UserOutboxEvent>> eventsCaptor;
+
+    @Test
+    void userCreated_ShouldSaveCreateEvent() {
+        userEventOutbox.userCreated(user(1, "john@example.com", "John Doe"));
+
+        verify(outboxRepository).save(eventCaptor.capture());
+
+        UserOutboxEvent event = eventCaptor.getValue();
+        assertEquals("CREATE", event.getOperation());
+        assertEquals(1, event.getUserId());
+        assertEquals("john@example.com", event.getEmail());
+        assertEquals("John Doe", event.getUserName());
+        assertNotNull(event.getCreatedAt());
+    }
+
+    @Test
+    void usersCreated_ShouldSaveAllEventsAtOnce() {
+        userEventOutbox.usersCreated(List.of(
+                user(1, "john@example.com", "John Doe"),
+                user(2, "jane@example.com", "Jane Doe")));
+
+        verify(outboxRepository).saveAll(eventsCaptor.capture());
+
+        List<UserOutboxEvent> events = eventsCaptor.getValue();
+        assertEquals(2, events.size());
+        assertEquals(List.of(1, 2), events.stream().map(UserOutboxEvent::getUserId).toList());
+        assertTrue(events.stream().allMatch(event -> "CREATE".equals(event.getOperation())));
+    }
+
+    @Test
+    void userUpdated_ShouldSaveUpdateEvent() {
+        userEventOutbox.userUpdated(user(3, "new@example.com", "New Name"));
+
+        verify(outboxRepository).save(eventCaptor.capture());
+
+        assertEquals("UPDATE", eventCaptor.getValue().getOperation());
+        assertEquals(3, eventCaptor.getValue().getUserId());
+    }
+
+    @Test
+    void userDeleted_ShouldSaveDeleteEvent() {
+        userEventOutbox.userDeleted(user(4, "old@example.com", "Old Name"));
+
+        verify(outboxRepository).save(eventCaptor.capture());
+
+        assertEquals("DELETE", eventCaptor.getValue().getOperation());
+        assertEquals("old@example.com", eventCaptor.getValue().getEmail());
+    }
+
+    private User user(int id, String email, String name) {
+        User user = new User(name, email, 30, LocalDateTime.now());
+        user.setId(id);
+        return user;
+    }
+}
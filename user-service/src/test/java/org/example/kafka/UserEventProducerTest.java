@@ -1,20 +1,30 @@
 package org.example.kafka;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.dto.UserEventDto;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class UserEventProducerTest {
@@ -22,13 +32,22 @@ class UserEventProducerTest {
     @Mock
     private KafkaTemplate<String, UserEventDto> kafkaTemplate;
 
-    @InjectMocks
+    private MeterRegistry meterRegistry;
     private UserEventProducer userEventProducer;
 
     @Captor
     private ArgumentCaptor<UserEventDto> eventCaptor;
 
     private static final String TOPIC = "user-events";
+    private static final int USER_ID = 42;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userEventProducer = new UserEventProducer(kafkaTemplate, meterRegistry, 10, 50);
+        lenient().when(kafkaTemplate.send(anyString(), any(), any(UserEventDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
 
     @Test
     void constructor_ShouldInitializeKafkaTemplate() {
@@ -36,165 +55,109 @@ class UserEventProducerTest {
     }
 
     @Test
-    void sendUserCreatedEvent_ShouldSendCreateEventToKafka() {
-        String email = "test@example.com";
-        String userName = "John Doe";
+    void publish_ShouldUseEmailAsRecordKey() {
+        UserEventDto event = new UserEventDto("UPDATE", USER_ID, "test@example.com", "John Doe");
 
-        userEventProducer.sendUserCreatedEvent(email, userName);
+        userEventProducer.publish(event);
 
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertNotNull(capturedEvent);
-        assertEquals("CREATE", capturedEvent.getOperation());
-        assertEquals(email, capturedEvent.getEmail());
-        assertEquals(userName, capturedEvent.getUserName());
+        verify(kafkaTemplate).send(TOPIC, "test@example.com", event);
     }
 
     @Test
-    void sendUserCreatedEvent_WithNullUserName_ShouldSendEventWithNullUserName() {
-        String email = "test@example.com";
-        String userName = null;
-
-        userEventProducer.sendUserCreatedEvent(email, userName);
-
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertEquals("CREATE", capturedEvent.getOperation());
-        assertEquals(email, capturedEvent.getEmail());
-        assertNull(capturedEvent.getUserName());
+    void sendEvents_ShouldSendAllEventsAndWaitForAcknowledgements() {
+        List<UserEventDto> events = List.of(
+                new UserEventDto("CREATE", 1, "john@example.com", "John Doe"),
+                new UserEventDto("DELETE", 2, "jane@example.com", "Jane Doe"));
+        when(kafkaTemplate.send(eq(TOPIC), any(), any(UserEventDto.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        userEventProducer.sendEvents(events);
+
+        verify(kafkaTemplate, times(2)).send(eq(TOPIC), any(), eventCaptor.capture());
+        verify(kafkaTemplate).flush();
+        assertEquals(events, eventCaptor.getAllValues());
     }
 
     @Test
-    void sendUserCreatedEvent_WithEmptyUserName_ShouldSendEventWithEmptyUserName() {
-        String email = "test@example.com";
-        String userName = "";
-
-        userEventProducer.sendUserCreatedEvent(email, userName);
+    void sendEvents_WhenBrokerRejectsEvent_ShouldThrow() {
+        CompletableFuture<SendResult<String, UserEventDto>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("Broker unavailable"));
+        when(kafkaTemplate.send(eq(TOPIC), any(), any(UserEventDto.class))).thenReturn(failed);
 
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertEquals("CREATE", capturedEvent.getOperation());
-        assertEquals(email, capturedEvent.getEmail());
-        assertEquals("", capturedEvent.getUserName());
+        assertThrows(CompletionException.class, () ->
+                userEventProducer.sendEvents(List.of(new UserEventDto("CREATE", 1, "john@example.com", "John Doe"))));
     }
 
     @Test
-    void sendUserCreatedEvent_WithNullEmail_ShouldSendEventWithNullEmail() {
-        String email = null;
-        String userName = "John Doe";
-
-        userEventProducer.sendUserCreatedEvent(email, userName);
+    void publish_WhenBrokerAcknowledges_ShouldRecordSuccessPerOperation() {
+        CompletableFuture<SendResult<String, UserEventDto>> future =
+                userEventProducer.publish(new UserEventDto("CREATE", USER_ID, "test@example.com", "John Doe"));
 
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertEquals("CREATE", capturedEvent.getOperation());
-        assertNull(capturedEvent.getEmail());
-        assertEquals(userName, capturedEvent.getUserName());
+        assertTrue(future.isDone());
+        assertEquals(1, meterRegistry.get("user.events.publish")
+                .tag("operation", "CREATE").tag("outcome", "success").timer().count());
     }
 
     @Test
-    void sendUserDeletedEvent_ShouldSendDeleteEventToKafka() {
-        String email = "test@example.com";
-        String userName = "John Doe";
-
-        userEventProducer.sendUserDeletedEvent(email, userName);
+    void publish_WhenBrokerFails_ShouldCompleteExceptionallyAndRecordFailure() {
+        CompletableFuture<SendResult<String, UserEventDto>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("Broker unavailable"));
+        when(kafkaTemplate.send(eq(TOPIC), any(), any(UserEventDto.class))).thenReturn(failed);
 
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
+        CompletableFuture<SendResult<String, UserEventDto>> future =
+                userEventProducer.publish(new UserEventDto("DELETE", USER_ID, "test@example.com", "John Doe"));
 
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertNotNull(capturedEvent);
-        assertEquals("DELETE", capturedEvent.getOperation());
-        assertEquals(email, capturedEvent.getEmail());
-        assertEquals(userName, capturedEvent.getUserName());
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(1, meterRegistry.get("user.events.publish")
+                .tag("operation", "DELETE").tag("outcome", "failure").timer().count());
     }
 
     @Test
-    void sendUserDeletedEvent_WithNullUserName_ShouldSendEventWithNullUserName() {
-        String email = "test@example.com";
-        String userName = null;
+    void publish_WithoutOperation_ShouldRecordUnknownOperation() {
+        CompletableFuture<SendResult<String, UserEventDto>> future =
+                userEventProducer.publish(new UserEventDto(null, USER_ID, "test@example.com", "John Doe"));
 
-        userEventProducer.sendUserDeletedEvent(email, userName);
-
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertEquals("DELETE", capturedEvent.getOperation());
-        assertEquals(email, capturedEvent.getEmail());
-        assertNull(capturedEvent.getUserName());
+        assertTrue(future.isDone());
+        assertEquals(1, meterRegistry.get("user.events.publish")
+                .tag("operation", "unknown").tag("outcome", "success").timer().count());
     }
 
     @Test
-    void sendUserDeletedEvent_WithEmptyUserName_ShouldSendEventWithEmptyUserName() {
-        String email = "test@example.com";
-        String userName = "";
-
-        userEventProducer.sendUserDeletedEvent(email, userName);
+    void publish_ShouldTrackInFlightEventsUntilAcknowledged() {
+        CompletableFuture<SendResult<String, UserEventDto>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(TOPIC), any(), any(UserEventDto.class))).thenReturn(pending);
 
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
+        userEventProducer.publish(new UserEventDto("CREATE", USER_ID, "test@example.com", "John Doe"));
+        assertEquals(1.0, meterRegistry.get("user.events.in-flight").gauge().value());
 
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertEquals("DELETE", capturedEvent.getOperation());
-        assertEquals(email, capturedEvent.getEmail());
-        assertEquals("", capturedEvent.getUserName());
+        pending.complete(null);
+        assertEquals(0.0, meterRegistry.get("user.events.in-flight").gauge().value());
     }
 
     @Test
-    void sendUserDeletedEvent_WithNullEmail_ShouldSendEventWithNullEmail() {
-        String email = null;
-        String userName = "John Doe";
-
-        userEventProducer.sendUserDeletedEvent(email, userName);
-
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-
-        UserEventDto capturedEvent = eventCaptor.getValue();
-        assertEquals("DELETE", capturedEvent.getOperation());
-        assertNull(capturedEvent.getEmail());
-        assertEquals(userName, capturedEvent.getUserName());
-    }
-
-    @Test
-    void sendUserCreatedEvent_ShouldUseCorrectTopic() {
-        String email = "test@example.com";
-        String userName = "John Doe";
-
-        userEventProducer.sendUserCreatedEvent(email, userName);
-
-        verify(kafkaTemplate).send(eq(TOPIC), any(UserEventDto.class));
-    }
-
-    @Test
-    void sendUserDeletedEvent_ShouldUseCorrectTopic() {
-        String email = "test@example.com";
-        String userName = "John Doe";
-
-        userEventProducer.sendUserDeletedEvent(email, userName);
-
-        verify(kafkaTemplate).send(eq(TOPIC), any(UserEventDto.class));
+    void publish_WhenInFlightLimitReached_ShouldRejectUntilAcknowledged() {
+        UserEventProducer limitedProducer = new UserEventProducer(kafkaTemplate, meterRegistry, 1, 10);
+        CompletableFuture<SendResult<String, UserEventDto>> pending = new CompletableFuture<>();
+        when(kafkaTemplate.send(eq(TOPIC), any(), any(UserEventDto.class))).thenReturn(pending);
+        UserEventDto event = new UserEventDto("CREATE", USER_ID, "test@example.com", "John Doe");
+
+        limitedProducer.publish(event);
+        assertThrows(IllegalStateException.class, () -> limitedProducer.publish(event));
+
+        pending.complete(null);
+        assertDoesNotThrow(() -> limitedProducer.publish(event));
+        verify(kafkaTemplate, times(2)).send(eq(TOPIC), any(), any(UserEventDto.class));
     }
 
     @Test
-    void bothMethods_ShouldCreateDifferentEventTypes() {
-        String email = "test@example.com";
-        String userName = "John Doe";
-
-        userEventProducer.sendUserCreatedEvent(email, userName);
-        verify(kafkaTemplate).send(eq(TOPIC), eventCaptor.capture());
-        UserEventDto createEvent = eventCaptor.getValue();
-
-        userEventProducer.sendUserDeletedEvent(email, userName);
-        verify(kafkaTemplate, times(2)).send(eq(TOPIC), eventCaptor.capture());
-        UserEventDto deleteEvent = eventCaptor.getValue();
-
-        assertEquals("CREATE", createEvent.getOperation());
-        assertEquals("DELETE", deleteEvent.getOperation());
-        assertEquals(email, createEvent.getEmail());
-        assertEquals(email, deleteEvent.getEmail());
-        assertEquals(userName, createEvent.getUserName());
-        assertEquals(userName, deleteEvent.getUserName());
+    void publish_WhenSendThrows_ShouldReleasePermit() {
+        UserEventProducer limitedProducer = new UserEventProducer(kafkaTemplate, meterRegistry, 1, 10);
+        when(kafkaTemplate.send(eq(TOPIC), any(), any(UserEventDto.class)))
+                .thenThrow(new RuntimeException("Serialization failed"))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        UserEventDto event = new UserEventDto("CREATE", USER_ID, "test@example.com", "John Doe");
+
+        assertThrows(RuntimeException.class, () -> limitedProducer.publish(event));
+        assertDoesNotThrow(() -> limitedProducer.publish(event));
     }
-}
\ No newline at end of file
+}
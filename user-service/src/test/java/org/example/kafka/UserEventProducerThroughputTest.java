@@ -0,0 +1,86 @@
+package org.example.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.example.dto.UserEventDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Запуск: mvn test -pl user-service -Dbenchmarks=true -Dtest=UserEventProducerThroughputTest
+@SpringBootTest(classes = UserEventProducerThroughputTest.class)
+@EmbeddedKafka(partitions = 3, topics = "user-events")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UserEventProducerThroughputTest {
+
+    private static final String TOPIC = "user-events";
+    private static final int WARMUP_EVENTS = 20_000;
+    private static final int EVENTS = 100_000;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Test
+    void tunedProfile_ShouldSendMoreEventsPerSecondThanDefaultProfile() {
+        double defaultRate = measure(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, 0,
+                ProducerConfig.BATCH_SIZE_CONFIG, 16384,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "none"));
+        double tunedRate = measure(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, 20,
+                ProducerConfig.BATCH_SIZE_CONFIG, 131072,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4"));
+
+        System.out.printf("default profile: %.0f events/s, kafka-throughput profile: %.0f events/s%n",
+                defaultRate, tunedRate);
+
+        assertThat(tunedRate).isGreaterThan(defaultRate);
+    }
+
+    private double measure(Map<String, Object> profile) {
+        Map<String, Object> configProps = new HashMap<>(profile);
+        configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString());
+        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+
+        DefaultKafkaProducerFactory<String, UserEventDto> producerFactory =
+                new DefaultKafkaProducerFactory<>(configProps);
+        try {
+            KafkaTemplate<String, UserEventDto> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+            send(kafkaTemplate, WARMUP_EVENTS);
+
+            long start = System.nanoTime();
+            send(kafkaTemplate, EVENTS);
+            return EVENTS / ((System.nanoTime() - start) / 1_000_000_000.0);
+        } finally {
+            producerFactory.destroy();
+        }
+    }
+
+    private void send(KafkaTemplate<String, UserEventDto> kafkaTemplate, int count) {
+        List<CompletableFuture<SendResult<String, UserEventDto>>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(kafkaTemplate.send(TOPIC,
+                    new UserEventDto("CREATE", i, "user" + i + "@example.com", "User " + i)));
+        }
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.kafka;
+
+import org.example.dto.UserEventDto;
+import org.example.entity.UserOutboxEvent;
+import org.example.repository.UserOutboxRelayLeaseRepository;
+import org.example.repository.UserOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserOutboxRelayTest {
+
+    @Mock
+    private UserOutboxRepository outboxRepository;
+
+    @Mock
+    private UserOutboxRelayLeaseRepository leaseRepository;
+
+    @Mock
+    private UserEventProducer userEventProducer;
+
+    @Mock
+    private CircuitBreakerFactory circuitBreakerFactory;
+
+    @Mock
+    private CircuitBreaker kafkaCircuitBreaker;
+
+    @Captor
+    private ArgumentCaptor<List<UserEventDto>> eventsCaptor;
+
+    private UserOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(circuitBreakerFactory.create("userEventsKafka")).thenReturn(kafkaCircuitBreaker);
+        lenient().when(kafkaCircuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            try {
+                return invocation.getArgument(0, Supplier.class).get();
+            } catch (RuntimeException e) {
+                return invocation.getArgument(1, Function.class).apply(e);
+            }
+        });
+
+        lenient().when(leaseRepository.tryAcquire(eq("user-outbox-relay"), anyString(), any(), any())).thenReturn(1);
+
+        relay = new UserOutboxRelay(outboxRepository, leaseRepository, userEventProducer, circuitBreakerFactory, 100,
+                180_000);
+    }
+
+    @Test
+    void relayPendingEvents_ShouldSendBatchAndDeleteRelayedRows() {
+        List<UserOutboxEvent> pendingEvents = List.of(
+                new UserOutboxEvent("CREATE", 1, "john@example.com", "John Doe", LocalDateTime.now()),
+                new UserOutboxEvent("DELETE", 2, "jane@example.com", "Jane Doe", LocalDateTime.now()));
+        when(outboxRepository.findByOrderByIdAsc(Limit.of(100))).thenReturn(pendingEvents);
+
+        relay.relayPendingEvents();
+
+        verify(userEventProducer).sendEvents(eventsCaptor.capture());
+        verify(outboxRepository).deleteAllInBatch(pendingEvents);
+
+        List<UserEventDto> events = eventsCaptor.getValue();
+        assertEquals(2, events.size());
+        assertEquals("CREATE", events.get(0).getOperation());
+        assertEquals(1, events.get(0).getUserId());
+        assertEquals("DELETE", events.get(1).getOperation());
+        assertEquals("jane@example.com", events.get(1).getEmail());
+    }
+
+    @Test
+    void relayPendingEvents_ShouldCarryOutboxEventIdAndCreationTime() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        UserOutboxEvent pendingEvent = new UserOutboxEvent("CREATE", 1, "john@example.com", "John Doe", createdAt);
+        when(outboxRepository.findByOrderByIdAsc(Limit.of(100))).thenReturn(List.of(pendingEvent));
+
+        relay.relayPendingEvents();
+
+        verify(userEventProducer).sendEvents(eventsCaptor.capture());
+        UserEventDto event = eventsCaptor.getValue().get(0);
+        assertEquals(pendingEvent.getEventId(), event.getEventId());
+        assertEquals(createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), event.getTimestamp());
+    }
+
+    @Test
+    void relayPendingEvents_WhenOutboxIsEmpty_ShouldDoNothing() {
+        when(outboxRepository.findByOrderByIdAsc(Limit.of(100))).thenReturn(List.of());
+
+        relay.relayPendingEvents();
+
+        verify(userEventProducer, never()).sendEvents(anyList());
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void relayPendingEvents_WhenKafkaFails_ShouldKeepRowsForNextAttempt() {
+        List<UserOutboxEvent> pendingEvents = List.of(
+                new UserOutboxEvent("CREATE", 1, "john@example.com", "John Doe", LocalDateTime.now()));
+        when(outboxRepository.findByOrderByIdAsc(Limit.of(100))).thenReturn(pendingEvents);
+        doThrow(new CompletionException(new RuntimeException("Broker unavailable")))
+                .when(userEventProducer).sendEvents(anyList());
+
+        assertDoesNotThrow(() -> relay.relayPendingEvents());
+
+        verify(kafkaCircuitBreaker).run(any(), any());
+        verify(outboxRepository, never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    void relayPendingEvents_WhenAnotherInstanceHoldsLease_ShouldNotReadOutbox() {
+        when(leaseRepository.tryAcquire(eq("user-outbox-relay"), anyString(), any(), any())).thenReturn(0);
+
+        relay.relayPendingEvents();
+
+        verifyNoInteractions(outboxRepository, userEventProducer);
+    }
+
+    @Test
+    void relayPendingEvents_ShouldRenewLeaseForLeaseDurationUnderSameOwner() {
+        ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<LocalDateTime> nowCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> lockedUntilCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
+        when(outboxRepository.findByOrderByIdAsc(Limit.of(100))).thenReturn(List.of());
+
+        relay.relayPendingEvents();
+        relay.relayPendingEvents();
+
+        verify(leaseRepository, times(2)).tryAcquire(eq("user-outbox-relay"), ownerCaptor.capture(),
+                nowCaptor.capture(), lockedUntilCaptor.capture());
+        assertEquals(ownerCaptor.getAllValues().get(0), ownerCaptor.getAllValues().get(1));
+        assertEquals(nowCaptor.getValue().plusMinutes(3), lockedUntilCaptor.getValue());
+    }
+
+    @Test
+    void releaseLease_ShouldReleaseLeaseHeldByThisInstance() {
+        ArgumentCaptor<String> ownerCaptor = ArgumentCaptor.forClass(String.class);
+        when(outboxRepository.findByOrderByIdAsc(Limit.of(100))).thenReturn(List.of());
+        relay.relayPendingEvents();
+
+        relay.releaseLease();
+
+        verify(leaseRepository).tryAcquire(eq("user-outbox-relay"), ownerCaptor.capture(), any(), any());
+        verify(leaseRepository).release(eq("user-outbox-relay"), eq(ownerCaptor.getValue()), any());
+    }
+}
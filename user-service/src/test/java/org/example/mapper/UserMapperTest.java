@@ -1,6 +1,7 @@
 package org.example.mapper;
 
 import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
 import org.example.entity.User;
 import org.junit.jupiter.api.Test;
 
@@ -27,6 +28,20 @@ class UserMapperTest {
         assertEquals(user.getCreatedAt(), result.getCreatedAt());
     }
 
+    @Test
+    void toResponseDto_UserView_ReturnsCorrectDto() {
+        UserView user = new UserView(1, "John", "john@test.com", 25, LocalDateTime.of(2024, 1, 15, 10, 30), 7);
+
+        UserResponseDto result = userMapper.toResponseDto(user);
+
+        assertEquals(1, result.getId());
+        assertEquals("John", result.getName());
+        assertEquals("john@test.com", result.getEmail());
+        assertEquals(25, result.getAge());
+        assertEquals(user.createdAt(), result.getCreatedAt());
+        assertEquals(7, result.getVersion());
+    }
+
     @Test
     void toResponseDto_UserWithNullFields_ReturnsDtoWithNullFields() {
         User user = new User(null, null, 0, null);
@@ -0,0 +1,79 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Запуск: mvn test -pl user-service -Dbenchmarks=true -Dtest=UserInsertThroughputTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UserInsertThroughputTest {
+
+    private static final int USERS = 2000;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void batchedInserts_ShouldNeedFewerStatementsAndRunFasterThanRowByRowInserts() {
+        // Базовый вариант: тот же генератор последовательности, но flush после каждого persist,
+        // поэтому каждый INSERT уходит отдельным запросом и батчинг не срабатывает
+        long rowByRowStart = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(newUser("row", i));
+            entityManager.flush();
+        }
+        long rowByRowNanos = System.nanoTime() - rowByRowStart;
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+        statistics.clear();
+
+        // Пакетная вставка: id берутся из пула последовательности, INSERT-ы уходят JDBC-батчами
+        long batchedStart = System.nanoTime();
+        for (int i = 0; i < USERS; i++) {
+            entityManager.persist(newUser("batch", i));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        long batchedNanos = System.nanoTime() - batchedStart;
+        long batchedStatements = statistics.getPrepareStatementCount();
+        entityManager.clear();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(USERS);
+        assertThat(batchedStatements).isLessThan(rowByRowStatements / 10);
+        assertThat(batchedNanos).isLessThan(rowByRowNanos);
+        assertThat(entityManager.getEntityManager()
+                .createQuery("select count(u) from User u", Long.class)
+                .getSingleResult()).isEqualTo(2L * USERS);
+    }
+
+    private User newUser(String prefix, int i) {
+        return new User("User " + i, prefix + i + "@test.com", 20 + i % 50, LocalDateTime.now());
+    }
+}
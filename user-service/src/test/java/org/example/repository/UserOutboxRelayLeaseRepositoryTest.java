@@ -0,0 +1,46 @@
+package org.example.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserOutboxRelayLeaseRepositoryTest {
+
+    private static final String RELAY = "user-outbox-relay";
+
+    @Autowired
+    private UserOutboxRelayLeaseRepository leaseRepository;
+
+    @Test
+    void tryAcquire_WhileLeaseIsHeld_OnlyOwnerCanRenewIt() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(1, leaseRepository.tryAcquire(RELAY, "first", now, now.plusMinutes(3)));
+        assertEquals(0, leaseRepository.tryAcquire(RELAY, "second", now.plusSeconds(1), now.plusMinutes(4)));
+        assertEquals(1, leaseRepository.tryAcquire(RELAY, "first", now.plusSeconds(1), now.plusMinutes(4)));
+    }
+
+    @Test
+    void tryAcquire_AfterLeaseExpires_AnotherInstanceTakesOver() {
+        LocalDateTime now = LocalDateTime.now();
+        leaseRepository.tryAcquire(RELAY, "first", now, now.plusMinutes(3));
+
+        assertEquals(1, leaseRepository.tryAcquire(RELAY, "second", now.plusMinutes(4), now.plusMinutes(7)));
+        assertEquals(0, leaseRepository.tryAcquire(RELAY, "first", now.plusMinutes(5), now.plusMinutes(8)));
+    }
+
+    @Test
+    void release_LetsAnotherInstanceAcquireImmediately() {
+        LocalDateTime now = LocalDateTime.now();
+        leaseRepository.tryAcquire(RELAY, "first", now, now.plusMinutes(3));
+
+        assertEquals(0, leaseRepository.release(RELAY, "second", now));
+        assertEquals(1, leaseRepository.release(RELAY, "first", now));
+        assertEquals(1, leaseRepository.tryAcquire(RELAY, "second", now.plusSeconds(1), now.plusMinutes(3)));
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.repository;
+
+import org.example.entity.UserOutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class UserOutboxRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserOutboxRepository outboxRepository;
+
+    @Test
+    void findByOrderByIdAsc_ReturnsOldestEventsFirstUpToLimit() {
+        UserOutboxEvent first = entityManager.persistAndFlush(
+                new UserOutboxEvent("CREATE", 1, "first@test.com", "First", LocalDateTime.now()));
+        UserOutboxEvent second = entityManager.persistAndFlush(
+                new UserOutboxEvent("UPDATE", 1, "first@test.com", "First", LocalDateTime.now()));
+        entityManager.persistAndFlush(
+                new UserOutboxEvent("DELETE", 1, "first@test.com", "First", LocalDateTime.now()));
+
+        List<UserOutboxEvent> events = outboxRepository.findByOrderByIdAsc(Limit.of(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), events.stream().map(UserOutboxEvent::getId).toList());
+    }
+
+    @Test
+    void deleteAllInBatch_RemovesRelayedEvents() {
+        UserOutboxEvent event = entityManager.persistAndFlush(
+                new UserOutboxEvent("CREATE", 1, "first@test.com", "First", LocalDateTime.now()));
+
+        outboxRepository.deleteAllInBatch(List.of(event));
+        entityManager.clear();
+
+        assertEquals(0, outboxRepository.count());
+    }
+
+    @Test
+    void save_PersistsEventId() {
+        UserOutboxEvent event = entityManager.persistAndFlush(
+                new UserOutboxEvent("CREATE", 1, "first@test.com", "First", LocalDateTime.now()));
+        entityManager.clear();
+
+        UserOutboxEvent found = outboxRepository.findById(event.getId()).orElseThrow();
+
+        assertEquals(event.getEventId(), found.getEventId());
+    }
+}
@@ -1,12 +1,23 @@
 package org.example.repository;
 
+import org.example.dto.UserView;
 import org.example.entity.User;
+import org.flywaydb.core.Flyway;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.sql.Connection;
+import java.sql.Statement;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,6 +31,9 @@ class UserRepositoryTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private Flyway flyway;
+
     @Test
     void findById_ExistingUser_ReturnsUser() {
         User user = new User("John", "john@test.com", 25, LocalDateTime.now());
@@ -62,4 +76,137 @@ class UserRepositoryTest {
         Optional<User> deletedUser = userRepository.findById(savedUser.getId());
         assertFalse(deletedUser.isPresent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findExistingEmails_ReturnsOnlyPersistedEmails() {
+        entityManager.persistAndFlush(new User("John", "john@test.com", 25, LocalDateTime.now()));
+        entityManager.persistAndFlush(new User("Jane", "jane@test.com", 30, LocalDateTime.now()));
+
+        List<String> existingEmails = userRepository.findExistingEmails(
+                List.of("john@test.com", "jane@test.com", "new@test.com"));
+
+        assertEquals(2, existingEmails.size());
+        assertTrue(existingEmails.containsAll(List.of("john@test.com", "jane@test.com")));
+    }
+
+    @Test
+    void saveAndFlush_DuplicateEmail_ViolatesUniqueEmailIndex() {
+        entityManager.persistAndFlush(new User("John", "john@test.com", 25, LocalDateTime.now()));
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> userRepository.saveAndFlush(new User("Johnny", "john@test.com", 30, LocalDateTime.now())));
+
+        ConstraintViolationException violation = assertInstanceOf(ConstraintViolationException.class,
+                exception.getCause());
+        assertTrue(violation.getConstraintName().toLowerCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_INDEX));
+    }
+
+    @Test
+    void saveAll_MultipleUsers_SavesAllUsers() {
+        List<User> savedUsers = userRepository.saveAll(List.of(
+                new User("John", "john@test.com", 25, LocalDateTime.now()),
+                new User("Jane", "jane@test.com", 30, LocalDateTime.now())));
+        entityManager.flush();
+
+        assertEquals(2, savedUsers.size());
+        assertTrue(savedUsers.stream().allMatch(user -> user.getId() > 0));
+        assertEquals(2, userRepository.count());
+    }
+
+    @Test
+    void findViewsAfter_ReturnsNextPageAfterCursor() {
+        User first = entityManager.persistAndFlush(new User("First", "first@test.com", 25, LocalDateTime.now()));
+        User second = entityManager.persistAndFlush(new User("Second", "second@test.com", 26, LocalDateTime.now()));
+        User third = entityManager.persistAndFlush(new User("Third", "third@test.com", 27, LocalDateTime.now()));
+
+        List<UserView> firstPage = userRepository.findViewsAfter(0, Limit.of(2));
+        List<UserView> secondPage = userRepository.findViewsAfter(firstPage.get(1).id(), Limit.of(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), firstPage.stream().map(UserView::id).toList());
+        assertEquals(List.of(third.getId()), secondPage.stream().map(UserView::id).toList());
+    }
+
+    @Test
+    void findViewById_ReturnsProjectionWithoutManagedEntity() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 15, 10, 30);
+        User user = entityManager.persistAndFlush(new User("John", "john@test.com", 25, createdAt));
+        entityManager.clear();
+
+        Optional<UserView> view = userRepository.findViewById(user.getId());
+
+        assertEquals(Optional.of(new UserView(user.getId(), "John", "john@test.com", 25, createdAt, 0)), view);
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+        assertTrue(userRepository.findViewById(999).isEmpty());
+    }
+
+    @Test
+    void findViewsByIds_ReturnsOnlyExistingUsers() {
+        User john = entityManager.persistAndFlush(new User("John", "john@test.com", 25, LocalDateTime.now()));
+        User jane = entityManager.persistAndFlush(new User("Jane", "jane@test.com", 30, LocalDateTime.now()));
+
+        List<UserView> views = userRepository.findViewsByIds(List.of(john.getId(), jane.getId(), 999));
+
+        assertEquals(2, views.size());
+        assertTrue(views.stream().map(UserView::email).toList().containsAll(List.of("john@test.com", "jane@test.com")));
+    }
+
+    @Test
+    void schema_IsCreatedByMigrationsWithEmailAndCreatedAtIndexes() {
+        assertEquals("5", flyway.info().current().getVersion().getVersion());
+
+        List<?> indexes = entityManager.getEntityManager()
+                .createNativeQuery("select lower(index_name) from information_schema.indexes where lower(table_name) = 'users'")
+                .getResultList();
+
+        assertTrue(indexes.containsAll(List.of(User.EMAIL_UNIQUE_INDEX, User.CREATED_AT_INDEX)));
+    }
+
+    @Test
+    void migrate_DatabaseBaselinedAtVersionOne_GetsOutboxTable() throws Exception {
+        Flyway baselined = Flyway.configure()
+                .dataSource("jdbc:h2:mem:baselined;DB_CLOSE_DELAY=-1", "sa", "")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load();
+        try (Connection connection = baselined.getConfiguration().getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SEQUENCE users_id_seq START WITH 1 INCREMENT BY 50");
+            statement.execute("CREATE TABLE users (id INTEGER PRIMARY KEY, name VARCHAR(255) NOT NULL, "
+                    + "email VARCHAR(255) NOT NULL, age INTEGER NOT NULL, created_at TIMESTAMP(6) NOT NULL)");
+            statement.execute("CREATE UNIQUE INDEX ux_users_email ON users (email)");
+
+            baselined.migrate();
+
+            statement.execute("INSERT INTO user_outbox (id, event_id, operation, created_at) "
+                    + "VALUES (NEXT VALUE FOR user_outbox_id_seq, RANDOM_UUID(), 'CREATE', CURRENT_TIMESTAMP)");
+            statement.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    void saveAndFlush_ChangedUser_IncrementsVersion() {
+        User user = entityManager.persistAndFlush(new User("John", "john@test.com", 25, LocalDateTime.now()));
+        assertEquals(0, user.getVersion());
+
+        user.setAge(26);
+        User updated = userRepository.saveAndFlush(user);
+
+        assertEquals(1, updated.getVersion());
+        assertEquals(1, userRepository.findViewById(user.getId()).orElseThrow().version());
+    }
+
+    @Test
+    void saveAndFlush_RowChangedAfterRead_ThrowsOptimisticLockingFailure() {
+        User user = entityManager.persistAndFlush(new User("John", "john@test.com", 25, LocalDateTime.now()));
+
+        // Параллельная транзакция успела обновить строку: управляемая сущность осталась с версией 0
+        entityManager.getEntityManager()
+                .createQuery("update User u set u.age = 40, u.version = u.version + 1 where u.id = :id")
+                .setParameter("id", user.getId())
+                .executeUpdate();
+
+        user.setName("Johnny");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> userRepository.saveAndFlush(user));
+    }
+}
@@ -1,26 +1,41 @@
 package org.example.service;
 
+import org.example.dto.UserBatchItemResultDto;
+import org.example.dto.UserLookupResultDto;
+import org.example.dto.UserPageDto;
+import org.example.dto.UserPatchDto;
 import org.example.dto.UserRequestDto;
 import org.example.dto.UserResponseDto;
+import org.example.dto.UserView;
 import org.example.entity.User;
-import org.example.kafka.UserEventProducer;
+import org.example.kafka.UserEventOutbox;
 import org.example.mapper.UserMapper;
 import org.example.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.CircuitBreakerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -34,7 +49,7 @@ class UserServiceTest {
     private UserMapper userMapper;
 
     @Mock
-    private UserEventProducer userEventProducer;
+    private UserEventOutbox userEventOutbox;
 
     @Mock
     private CircuitBreakerFactory circuitBreakerFactory;
@@ -46,9 +61,10 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, userMapper, userEventProducer, circuitBreakerFactory);
-
         when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
+
+        userService = new UserService(userRepository, userMapper, userEventOutbox, circuitBreakerFactory,
+                new ConcurrentMapCacheManager("users"));
     }
     @Test
     void validateUserData_ThroughCreateUser_ShouldThrowExceptions() {
@@ -93,7 +109,7 @@ class UserServiceTest {
     @Test
     void findUserById_Success() {
         int userId = 1;
-        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        UserView user = new UserView(userId, "John Doe", "john@example.com", 30, LocalDateTime.now(), 0);
         UserResponseDto expectedResponse = new UserResponseDto();
         expectedResponse.setId(userId);
         expectedResponse.setName("John Doe");
@@ -103,7 +119,7 @@ class UserServiceTest {
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.findViewById(userId)).thenReturn(Optional.of(user));
         when(userMapper.toResponseDto(user)).thenReturn(expectedResponse);
 
         UserResponseDto result = userService.findUserById(userId);
@@ -113,11 +129,72 @@ class UserServiceTest {
         assertThat(result.getName()).isEqualTo("John Doe");
         assertThat(result.getEmail()).isEqualTo("john@example.com");
 
-        verify(userRepository).findById(userId);
+        verify(userRepository).findViewById(userId);
+        verify(userRepository, never()).findById(anyInt());
         verify(userMapper).toResponseDto(user);
         verify(circuitBreakerFactory).create("userService");
     }
 
+    @Test
+    void findUserById_SecondCall_ShouldBeServedFromCache() {
+        int userId = 1;
+        UserView user = new UserView(userId, "John Doe", "john@example.com", 30, LocalDateTime.now(), 0);
+        UserResponseDto expectedResponse = new UserResponseDto(userId, "John Doe", "john@example.com", 30, user.createdAt());
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewById(userId)).thenReturn(Optional.of(user));
+        when(userMapper.toResponseDto(user)).thenReturn(expectedResponse);
+
+        userService.findUserById(userId);
+        UserResponseDto result = userService.findUserById(userId);
+
+        assertThat(result.getEmail()).isEqualTo("john@example.com");
+        verify(userRepository, times(1)).findViewById(userId);
+        verify(circuitBreakerFactory, times(1)).create("userService");
+        verify(userMapper, times(2)).toResponseDto(user);
+    }
+
+    @Test
+    void updateUser_ShouldEvictUserFromCache() {
+        int userId = 1;
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(userId);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewById(userId)).thenReturn(Optional.of(view(user)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+
+        userService.findUserById(userId);
+        userService.updateUser(userId, new UserRequestDto("New Name", "new@example.com", 31));
+        userService.findUserById(userId);
+
+        verify(userRepository, times(2)).findViewById(userId);
+    }
+
+    @Test
+    void deleteUser_ShouldEvictUserFromCache() {
+        int userId = 1;
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(userId);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewById(userId)).thenReturn(Optional.of(view(user)));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        userService.findUserById(userId);
+        userService.deleteUser(userId);
+        userService.findUserById(userId);
+
+        verify(userRepository, times(2)).findViewById(userId);
+    }
+
     @Test
     void findUserById_WhenUserNotFound_ShouldThrowException() {
         int userId = 999;
@@ -125,13 +202,13 @@ class UserServiceTest {
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
-        when(userRepository.findById(userId)).thenReturn(Optional.empty());
+        when(userRepository.findViewById(userId)).thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.findUserById(userId))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("Пользователь с id " + userId + " не найден");
 
-        verify(userRepository).findById(userId);
+        verify(userRepository).findViewById(userId);
     }
 
     @Test
@@ -151,9 +228,120 @@ class UserServiceTest {
         assertThat(result.getEmail()).isEqualTo("unavailable@example.com");
         assertThat(result.getAge()).isEqualTo(0);
         assertThat(result.getCreatedAt()).isNotNull();
+        assertThat(result.isUnavailable()).isTrue();
 
         verify(circuitBreakerFactory).create("userService");
-        verify(userRepository, never()).findById(anyInt());
+        verify(userRepository, never()).findViewById(anyInt());
+    }
+
+    @Test
+    void findUsersByIds_ShouldReturnResultsInRequestOrderWithMissingIdsFlagged() {
+        UserView john = new UserView(1, "John Doe", "john@example.com", 30, LocalDateTime.now(), 0);
+        UserView jane = new UserView(2, "Jane Doe", "jane@example.com", 25, LocalDateTime.now(), 0);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewsByIds(any())).thenReturn(List.of(john, jane));
+        when(userMapper.toResponseDto(any(UserView.class))).thenAnswer(invocation -> {
+            UserView user = invocation.getArgument(0);
+            return new UserResponseDto(user.id(), user.name(), user.email(), user.age(), user.createdAt());
+        });
+
+        List<UserLookupResultDto> results = userService.findUsersByIds(List.of(2, 99, 1, 2));
+
+        assertThat(results).extracting(UserLookupResultDto::getId).containsExactly(2, 99, 1, 2);
+        assertThat(results).extracting(UserLookupResultDto::isFound).containsExactly(true, false, true, true);
+        assertThat(results.get(0).getUser().getEmail()).isEqualTo("jane@example.com");
+        assertThat(results.get(1).getUser()).isNull();
+        assertThat(results.get(2).getUser().getEmail()).isEqualTo("john@example.com");
+        verify(userRepository, times(1)).findViewsByIds(Set.of(1, 2, 99));
+        verify(circuitBreaker, times(1)).run(any(), any());
+    }
+
+    @Test
+    void findUsersByIds_ShouldQueryOnlyUsersMissingFromCache() {
+        UserView john = new UserView(1, "John Doe", "john@example.com", 30, LocalDateTime.now(), 0);
+        UserView jane = new UserView(2, "Jane Doe", "jane@example.com", 25, LocalDateTime.now(), 0);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewById(1)).thenReturn(Optional.of(john));
+        when(userRepository.findViewsByIds(any())).thenReturn(List.of(jane));
+        when(userMapper.toResponseDto(any(UserView.class))).thenReturn(new UserResponseDto());
+
+        userService.findUserById(1);
+        userService.findUsersByIds(List.of(1, 2));
+        List<UserLookupResultDto> results = userService.findUsersByIds(List.of(1, 2));
+
+        assertThat(results).allMatch(UserLookupResultDto::isFound);
+        verify(userRepository, times(1)).findViewsByIds(Set.of(2));
+    }
+
+    @Test
+    void findUsersByIds_WithInvalidIds_ShouldThrowException() {
+        assertThatThrownBy(() -> userService.findUsersByIds(List.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Список id не может быть пустым");
+        assertThatThrownBy(() -> userService.findUsersByIds(java.util.Collections.nCopies(1001, 1)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("За один запрос можно получить не более 1000 пользователей");
+        assertThatThrownBy(() -> userService.findUsersByIds(java.util.Arrays.asList(1, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("id пользователя не может быть пустым");
+
+        verify(circuitBreaker, never()).run(any(), any());
+    }
+
+    @Test
+    void findUsersByIds_WhenCircuitBreakerFallback_ShouldThrowRuntimeException() {
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(1, java.util.function.Function.class)
+                    .apply(new RuntimeException("Database unavailable"));
+        });
+
+        assertThatThrownBy(() -> userService.findUsersByIds(List.of(1, 2)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("Сервис получения пользователей временно недоступен");
+    }
+
+    @Test
+    void findUsersAfter_WhenMoreUsersExist_ShouldReturnNextCursor() {
+        UserView first = new UserView(1, "John Doe", "john@example.com", 30, LocalDateTime.now(), 0);
+        UserView second = new UserView(2, "Jane Doe", "jane@example.com", 25, LocalDateTime.now(), 0);
+        UserView third = new UserView(3, "Jack Doe", "jack@example.com", 20, LocalDateTime.now(), 0);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewsAfter(0, Limit.of(3))).thenReturn(List.of(first, second, third));
+        when(userMapper.toResponseDto(any(UserView.class))).thenAnswer(invocation -> {
+            UserView user = invocation.getArgument(0);
+            return new UserResponseDto(user.id(), user.name(), user.email(), user.age(), user.createdAt());
+        });
+
+        UserPageDto page = userService.findUsersAfter(0, 2);
+
+        assertThat(page.getContent()).extracting(UserResponseDto::getId).containsExactly(1, 2);
+        assertThat(page.getNextCursor()).isEqualTo(2);
+        verify(userMapper, times(2)).toResponseDto(any(UserView.class));
+    }
+
+    @Test
+    void findUsersAfter_WhenLastPage_ShouldReturnNullCursor() {
+        UserView user = new UserView(5, "John Doe", "john@example.com", 30, LocalDateTime.now(), 0);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findViewsAfter(4, Limit.of(11))).thenReturn(List.of(user));
+        when(userMapper.toResponseDto(user)).thenReturn(new UserResponseDto());
+
+        UserPageDto page = userService.findUsersAfter(4, 10);
+
+        assertThat(page.getContent()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
     }
 
     @Test
@@ -174,8 +362,7 @@ class UserServiceTest {
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
-        when(userRepository.existsByEmail("jane@example.com")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
         when(userMapper.toResponseDto(savedUser)).thenReturn(expectedResponse);
 
         UserResponseDto result = userService.createUser(requestDto);
@@ -185,9 +372,8 @@ class UserServiceTest {
         assertThat(result.getName()).isEqualTo("Jane Doe");
         assertThat(result.getEmail()).isEqualTo("jane@example.com");
 
-        verify(userRepository).existsByEmail("jane@example.com");
-        verify(userRepository).save(any(User.class));
-        verify(userEventProducer).sendUserCreatedEvent("jane@example.com", "Jane Doe");
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userEventOutbox).userCreated(savedUser);
         verify(userMapper).toResponseDto(savedUser);
     }
 
@@ -201,15 +387,58 @@ class UserServiceTest {
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
-        when(userRepository.existsByEmail("jane@example.com")).thenReturn(true);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(emailConstraintViolation());
 
         assertThatThrownBy(() -> userService.createUser(requestDto))
-                .isInstanceOf(IllegalArgumentException.class)
+                .isInstanceOf(UserAlreadyExistsException.class)
                 .hasMessage("Пользователь с email jane@example.com уже существует");
 
-        verify(userRepository).existsByEmail("jane@example.com");
-        verify(userRepository, never()).save(any(User.class));
-        verify(userEventProducer, never()).sendUserCreatedEvent(anyString(), anyString());
+        verify(userRepository, times(1)).saveAndFlush(any(User.class));
+        verify(userEventOutbox, never()).userCreated(any(User.class));
+    }
+
+    @Test
+    void createUser_WhenOtherConstraintViolated_ShouldNotReportDuplicateEmail() {
+        UserRequestDto requestDto = new UserRequestDto("Jane Doe", "jane@example.com", 25);
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", new SQLException(), "users_name_not_null"));
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        assertThatThrownBy(() -> userService.createUser(requestDto)).isSameAs(violation);
+    }
+
+    @Test
+    void createUser_WhenFallbackReceivesDuplicateEmail_ShouldRethrowIt() {
+        UserRequestDto requestDto = new UserRequestDto("Jane Doe", "jane@example.com", 25);
+        UserAlreadyExistsException duplicate = new UserAlreadyExistsException("jane@example.com");
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(1, java.util.function.Function.class).apply(duplicate);
+        });
+
+        assertThatThrownBy(() -> userService.createUser(requestDto)).isSameAs(duplicate);
+    }
+
+    @Test
+    void updateUser_WhenEmailTakenByAnotherUser_ShouldThrowException() {
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(1);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenThrow(emailConstraintViolation());
+
+        assertThatThrownBy(() -> userService.updateUser(1, new UserRequestDto("John Doe", "jane@example.com", 30)))
+                .isInstanceOf(UserAlreadyExistsException.class)
+                .hasMessage("Пользователь с email jane@example.com уже существует");
+
+        verify(userEventOutbox, never()).userUpdated(any(User.class));
     }
 
     @Test
@@ -219,7 +448,6 @@ class UserServiceTest {
         requestDto.setEmail("jane@example.com");
         requestDto.setAge(25);
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
@@ -230,53 +458,22 @@ class UserServiceTest {
     }
 
     @Test
-    void createUser_WhenKafkaFails_ShouldContinueNormally() {
-        UserRequestDto requestDto = new UserRequestDto();
-        requestDto.setName("Jane Doe");
-        requestDto.setEmail("jane@example.com");
-        requestDto.setAge(25);
+    void createUser_ShouldWriteEventToOutboxWithinSingleCircuitBreakerCall() {
+        UserRequestDto requestDto = new UserRequestDto("Jane Doe", "jane@example.com", 25);
 
         User savedUser = new User("Jane Doe", "jane@example.com", 25, LocalDateTime.now());
         savedUser.setId(1);
-        UserResponseDto expectedResponse = new UserResponseDto();
-        expectedResponse.setId(1);
-        expectedResponse.setName("Jane Doe");
-        expectedResponse.setEmail("jane@example.com");
-        expectedResponse.setAge(25);
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
-
-        doAnswer(invocation -> {
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
-        }).doAnswer(invocation -> {
-            return invocation.getArgument(1, java.util.function.Function.class)
-                    .apply(new RuntimeException("Kafka unavailable"));
-        }).when(circuitBreaker).run(any(), any());
-
-        when(userRepository.existsByEmail("jane@example.com")).thenReturn(false);
-        when(userRepository.save(any(User.class))).thenReturn(savedUser);
-        when(userMapper.toResponseDto(savedUser)).thenReturn(expectedResponse);
-
-        java.io.ByteArrayOutputStream errContent = new java.io.ByteArrayOutputStream();
-        System.setErr(new java.io.PrintStream(errContent));
-
-        UserResponseDto result = userService.createUser(requestDto);
-
-        assertThat(result).isNotNull();
-        assertThat(result.getId()).isEqualTo(1);
-        assertThat(result.getName()).isEqualTo("Jane Doe");
-        assertThat(result.getEmail()).isEqualTo("jane@example.com");
-
-        String errorOutput = errContent.toString();
-        assertThat(errorOutput).contains("Ошибка отправки Kafka события");
-        assertThat(errorOutput).contains("Kafka unavailable");
+        });
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(savedUser);
+        when(userMapper.toResponseDto(savedUser)).thenReturn(new UserResponseDto());
 
-        System.setErr(System.err);
+        userService.createUser(requestDto);
 
-        verify(userRepository).existsByEmail("jane@example.com");
-        verify(userRepository).save(any(User.class));
-        verify(userMapper).toResponseDto(savedUser);
-        verify(userEventProducer, never()).sendUserCreatedEvent(anyString(), anyString());
+        verify(circuitBreaker, times(1)).run(any(), any());
+        verify(userEventOutbox).userCreated(savedUser);
     }
 
     @Test
@@ -286,7 +483,6 @@ class UserServiceTest {
         requestDto.setEmail("jane@example.com");
         requestDto.setAge(25);
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(1, java.util.function.Function.class)
                     .apply(new RuntimeException("Database unavailable"));
@@ -296,8 +492,86 @@ class UserServiceTest {
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("Сервис создания пользователей временно недоступен");
 
-        verify(userRepository, never()).existsByEmail(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).saveAndFlush(any(User.class));
+    }
+
+    @Test
+    void createUsers_ShouldReportPerItemResults() {
+        UserRequestDto valid = new UserRequestDto("Jane Doe", "jane@example.com", 25);
+        UserRequestDto invalid = new UserRequestDto("", "empty@example.com", 25);
+        UserRequestDto existing = new UserRequestDto("John Doe", "john@example.com", 30);
+        UserRequestDto duplicate = new UserRequestDto("Jane Copy", "jane@example.com", 26);
+
+        User savedUser = new User("Jane Doe", "jane@example.com", 25, LocalDateTime.now());
+        savedUser.setId(1);
+        UserResponseDto expectedResponse = new UserResponseDto(1, "Jane Doe", "jane@example.com", 25, savedUser.getCreatedAt());
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of("john@example.com"));
+        when(userRepository.saveAll(anyList())).thenReturn(List.of(savedUser));
+        when(userMapper.toResponseDto(savedUser)).thenReturn(expectedResponse);
+
+        List<UserBatchItemResultDto> results = userService.createUsers(List.of(valid, invalid, existing, duplicate));
+
+        assertThat(results).hasSize(4);
+        assertThat(results.get(0).isSuccess()).isTrue();
+        assertThat(results.get(0).getUser().getId()).isEqualTo(1);
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).getError()).isEqualTo("Имя не может быть пустым");
+        assertThat(results.get(2).isSuccess()).isFalse();
+        assertThat(results.get(2).getError()).isEqualTo("Пользователь с email john@example.com уже существует");
+        assertThat(results.get(3).isSuccess()).isFalse();
+        assertThat(results.get(3).getError()).isEqualTo("Email jane@example.com повторяется в запросе");
+
+        verify(userRepository).findExistingEmails(argThat(emails ->
+                emails.size() == 2 && emails.containsAll(List.of("jane@example.com", "john@example.com"))));
+        verify(userRepository).saveAll(anyList());
+        verify(userEventOutbox).usersCreated(List.of(savedUser));
+    }
+
+    @Test
+    void createUsers_WhenNoValidUsers_ShouldNotSaveOrSendEvents() {
+        UserRequestDto invalid = new UserRequestDto("Jane Doe", "jane@example.com", 0);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+
+        List<UserBatchItemResultDto> results = userService.createUsers(List.of(invalid));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getError()).isEqualTo("Возраст должен быть положительным числом");
+
+        verify(userRepository, never()).findExistingEmails(any());
+        verify(userRepository, never()).saveAll(anyList());
+        verify(userEventOutbox, never()).usersCreated(anyList());
+    }
+
+    @Test
+    void createUsers_WithNullElement_ShouldReportItAsFailedItem() {
+        UserRequestDto valid = new UserRequestDto("Jane Doe", "jane@example.com", 25);
+
+        User savedUser = new User("Jane Doe", "jane@example.com", 25, LocalDateTime.now());
+        savedUser.setId(1);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findExistingEmails(any())).thenReturn(List.of());
+        when(userRepository.saveAll(anyList())).thenReturn(List.of(savedUser));
+        when(userMapper.toResponseDto(savedUser))
+                .thenReturn(new UserResponseDto(1, "Jane Doe", "jane@example.com", 25, savedUser.getCreatedAt()));
+
+        List<UserBatchItemResultDto> results = userService.createUsers(Arrays.asList(null, valid));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).isSuccess()).isFalse();
+        assertThat(results.get(0).getIndex()).isZero();
+        assertThat(results.get(0).getError()).isEqualTo("Данные пользователя не могут быть пустыми");
+        assertThat(results.get(1).isSuccess()).isTrue();
+        verify(userEventOutbox).usersCreated(List.of(savedUser));
     }
 
     @Test
@@ -318,12 +592,11 @@ class UserServiceTest {
         expectedResponse.setEmail("updated@example.com");
         expectedResponse.setAge(35);
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
         when(userRepository.findById(userId)).thenReturn(Optional.of(existingUser));
-        when(userRepository.save(any(User.class))).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(updatedUser);
         when(userMapper.toResponseDto(updatedUser)).thenReturn(expectedResponse);
 
         UserResponseDto result = userService.updateUser(userId, requestDto);
@@ -334,8 +607,9 @@ class UserServiceTest {
         assertThat(result.getAge()).isEqualTo(35);
 
         verify(userRepository).findById(userId);
-        verify(userRepository).save(existingUser);
+        verify(userRepository).saveAndFlush(existingUser);
         verify(userMapper).toResponseDto(updatedUser);
+        verify(userEventOutbox).userUpdated(updatedUser);
     }
 
     @Test
@@ -346,7 +620,6 @@ class UserServiceTest {
         requestDto.setEmail("updated@example.com");
         requestDto.setAge(35);
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
@@ -357,13 +630,128 @@ class UserServiceTest {
                 .hasMessage("Пользователь с id " + userId + " не найден");
     }
 
+    @Test
+    void updateUser_StaleExpectedVersion_ThrowsVersionMismatchWithoutSaving() {
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(1);
+        user.setVersion(3);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> userService.updateUser(1, new UserRequestDto("New Name", "new@example.com", 31), 2L))
+                .isInstanceOf(UserVersionMismatchException.class)
+                .hasMessage("Пользователь с id 1 изменён: ожидалась версия 2, текущая 3");
+
+        assertThat(user.getName()).isEqualTo("John Doe");
+        verify(userRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void updateUser_ConcurrentModification_IsNotWrappedByFallback() {
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(1);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            try {
+                return invocation.getArgument(0, java.util.function.Supplier.class).get();
+            } catch (RuntimeException e) {
+                return invocation.getArgument(1, java.util.function.Function.class).apply(e);
+            }
+        });
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1));
+
+        assertThatThrownBy(() -> userService.updateUser(1, new UserRequestDto("New Name", "new@example.com", 31), 0L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void patchUser_ChangesOnlySuppliedFields() {
+        LocalDateTime createdAt = LocalDateTime.now();
+        User user = new User("John Doe", "john@example.com", 30, createdAt);
+        user.setId(1);
+        UserResponseDto expectedResponse = new UserResponseDto(1, "John Doe", "john@example.com", 31, createdAt, 1);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.saveAndFlush(user)).thenReturn(user);
+        when(userMapper.toResponseDto(user)).thenReturn(expectedResponse);
+
+        UserResponseDto result = userService.patchUser(1, new UserPatchDto(null, null, 31), 0L);
+
+        assertThat(result).isSameAs(expectedResponse);
+        assertThat(user.getName()).isEqualTo("John Doe");
+        assertThat(user.getEmail()).isEqualTo("john@example.com");
+        assertThat(user.getAge()).isEqualTo(31);
+        verify(userEventOutbox).userUpdated(user);
+    }
+
+    @Test
+    void patchUser_SameValues_SkipsSaveAndEvent() {
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(1);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.findViewById(1)).thenReturn(Optional.of(view(user)));
+
+        userService.findUserById(1);
+        userService.patchUser(1, new UserPatchDto("John Doe", "john@example.com", 30), null);
+        userService.findUserById(1);
+
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(userRepository, times(1)).findViewById(1);
+        verifyNoInteractions(userEventOutbox);
+    }
+
+    @Test
+    void patchUser_StaleExpectedVersion_ThrowsVersionMismatch() {
+        User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
+        user.setId(1);
+        user.setVersion(5);
+
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(0, java.util.function.Supplier.class).get();
+        });
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+
+        assertThatThrownBy(() -> userService.patchUser(1, new UserPatchDto("Johnny", null, null), 4L))
+                .isInstanceOf(UserVersionMismatchException.class);
+
+        assertThat(user.getName()).isEqualTo("John Doe");
+        verify(userRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void patchUser_InvalidFields_ThrowsBeforeCircuitBreaker() {
+        assertThatThrownBy(() -> userService.patchUser(1, new UserPatchDto(" ", null, null), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Имя не может быть пустым");
+        assertThatThrownBy(() -> userService.patchUser(1, new UserPatchDto(null, "", null), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Email не может быть пустым");
+        assertThatThrownBy(() -> userService.patchUser(1, new UserPatchDto(null, null, 0), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Возраст должен быть положительным числом");
+
+        verifyNoInteractions(circuitBreaker, userRepository);
+    }
+
     @Test
     void deleteUser_Success() {
         int userId = 1;
         User user = new User("John Doe", "john@example.com", 30, LocalDateTime.now());
         user.setId(userId);
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
@@ -374,14 +762,13 @@ class UserServiceTest {
 
         verify(userRepository).findById(userId);
         verify(userRepository).deleteById(userId);
-        verify(userEventProducer).sendUserDeletedEvent("john@example.com", "John Doe");
+        verify(userEventOutbox).userDeleted(user);
     }
 
     @Test
     void deleteUser_WhenUserNotFound_ShouldThrowException() {
         int userId = 999;
 
-        when(circuitBreakerFactory.create("userService")).thenReturn(circuitBreaker);
         when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
             return invocation.getArgument(0, java.util.function.Supplier.class).get();
         });
@@ -392,7 +779,7 @@ class UserServiceTest {
                 .hasMessage("Пользователь с id " + userId + " не найден");
 
         verify(userRepository, never()).deleteById(anyInt());
-        verify(userEventProducer, never()).sendUserDeletedEvent(anyString(), anyString());
+        verify(userEventOutbox, never()).userDeleted(any(User.class));
     }
 
     @Test
@@ -481,4 +868,30 @@ class UserServiceTest {
 
         verify(circuitBreakerFactory).create("userService");
     }
-}
\ No newline at end of file
+
+    @Test
+    void serviceMethods_ShouldReuseCircuitBreakerCreatedInConstructor() {
+        when(circuitBreaker.run(any(), any())).thenAnswer(invocation -> {
+            return invocation.getArgument(1, java.util.function.Function.class)
+                    .apply(new RuntimeException("Test error"));
+        });
+
+        userService.findUserById(1);
+        userService.findUserById(2);
+        assertThatThrownBy(() -> userService.deleteUser(1)).isInstanceOf(RuntimeException.class);
+
+        verify(circuitBreakerFactory, times(1)).create(anyString());
+        verify(circuitBreaker, times(3)).run(any(), any());
+    }
+
+    // Так Spring оборачивает нарушение уникального индекса, имя ограничения приходит от драйвера
+    private static DataIntegrityViolationException emailConstraintViolation() {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException(),
+                        "PUBLIC.UX_USERS_EMAIL ON PUBLIC.USERS(EMAIL NULLS FIRST)"));
+    }
+
+    private static UserView view(User user) {
+        return new UserView(user.getId(), user.getName(), user.getEmail(), user.getAge(), user.getCreatedAt(), user.getVersion());
+    }
+}